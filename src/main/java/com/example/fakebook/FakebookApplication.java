@@ -1,12 +1,18 @@
 package com.example.fakebook;
 
+import com.example.fakebook.service.FollowImportRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
 
 @SpringBootApplication
 public class FakebookApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(FakebookApplication.class, args);
+        ConfigurableApplicationContext context = SpringApplication.run(FakebookApplication.class, args);
+        // An offline follow import has finished by the time run returns; shut down with its exit code.
+        if (context.getBeanNamesForType(FollowImportRunner.class).length > 0) {
+            System.exit(SpringApplication.exit(context));
+        }
     }
 }
@@ -2,6 +2,7 @@ package com.example.fakebook.controller;
 
 import com.example.fakebook.dto.comment.CommentRequest;
 import com.example.fakebook.dto.comment.CommentResponse;
+import com.example.fakebook.dto.common.CursorPage;
 import com.example.fakebook.service.AuthService;
 import com.example.fakebook.service.CommentService;
 import jakarta.validation.Valid;
@@ -27,6 +28,13 @@ public class CommentController {
         return ResponseEntity.ok(commentService.getComments(postId));
     }
 
+    @GetMapping("/posts/{postId}/comments/scroll")
+    public ResponseEntity<CursorPage<CommentResponse>> scrollComments(@PathVariable Long postId,
+                                                                      @RequestParam(required = false) String cursor,
+                                                                      @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(commentService.getComments(postId, cursor, size));
+    }
+
     @PostMapping("/posts/{postId}/comments")
     public ResponseEntity<CommentResponse> addComment(@PathVariable Long postId,
                                                        @Valid @RequestBody CommentRequest request) {
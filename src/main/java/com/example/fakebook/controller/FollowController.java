@@ -1,7 +1,11 @@
 package com.example.fakebook.controller;
 
+import com.example.fakebook.dto.user.BulkFollowRequest;
+import com.example.fakebook.dto.user.BulkFollowResponse;
 import com.example.fakebook.service.AuthService;
+import com.example.fakebook.service.FollowImportService;
 import com.example.fakebook.service.FollowService;
+import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -11,10 +15,19 @@ public class FollowController {
 
     private final AuthService authService;
     private final FollowService followService;
+    private final FollowImportService followImportService;
 
-    public FollowController(AuthService authService, FollowService followService) {
+    public FollowController(AuthService authService, FollowService followService,
+                            FollowImportService followImportService) {
         this.authService = authService;
         this.followService = followService;
+        this.followImportService = followImportService;
+    }
+
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkFollowResponse> followAll(@Valid @RequestBody BulkFollowRequest request) {
+        var user = authService.getCurrentUser();
+        return ResponseEntity.ok(followImportService.followAll(user, request.getUserIds()));
     }
 
     @PostMapping("/{userId}")
@@ -1,5 +1,7 @@
 package com.example.fakebook.controller;
 
+import com.example.fakebook.dto.common.CursorPage;
+import com.example.fakebook.dto.post.LikeResponse;
 import com.example.fakebook.dto.post.PostRequest;
 import com.example.fakebook.dto.post.PostResponse;
 import com.example.fakebook.service.AuthService;
@@ -28,9 +30,16 @@ public class PostController {
         return ResponseEntity.ok(postService.createPost(user, request));
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<Page<PostResponse>> searchPosts(@RequestParam String q, Pageable pageable) {
+        var user = authService.getCurrentUser();
+        return ResponseEntity.ok(postService.searchPosts(user, q, pageable));
+    }
+
     @GetMapping("/{postId}")
     public ResponseEntity<PostResponse> getPost(@PathVariable Long postId) {
-        return ResponseEntity.ok(postService.getPost(postId));
+        var user = authService.getCurrentUser();
+        return ResponseEntity.ok(postService.getPost(user, postId));
     }
 
     @DeleteMapping("/{postId}")
@@ -42,7 +51,16 @@ public class PostController {
 
     @GetMapping("/user/{userId}")
     public ResponseEntity<Page<PostResponse>> getUserPosts(@PathVariable Long userId, Pageable pageable) {
-        return ResponseEntity.ok(postService.getUserPosts(userId, pageable));
+        var user = authService.getCurrentUser();
+        return ResponseEntity.ok(postService.getUserPosts(user, userId, pageable));
+    }
+
+    @GetMapping("/user/{userId}/scroll")
+    public ResponseEntity<CursorPage<PostResponse>> scrollUserPosts(@PathVariable Long userId,
+                                                                    @RequestParam(required = false) String cursor,
+                                                                    @RequestParam(defaultValue = "20") int size) {
+        var user = authService.getCurrentUser();
+        return ResponseEntity.ok(postService.getUserPosts(user, userId, cursor, size));
     }
 
     @GetMapping("/feed")
@@ -51,17 +69,22 @@ public class PostController {
         return ResponseEntity.ok(postService.getNewsfeed(user, pageable));
     }
 
+    @GetMapping("/feed/scroll")
+    public ResponseEntity<CursorPage<PostResponse>> scrollNewsfeed(@RequestParam(required = false) String cursor,
+                                                                   @RequestParam(defaultValue = "20") int size) {
+        var user = authService.getCurrentUser();
+        return ResponseEntity.ok(postService.getNewsfeed(user, cursor, size));
+    }
+
     @PostMapping("/{postId}/like")
-    public ResponseEntity<Void> likePost(@PathVariable Long postId) {
+    public ResponseEntity<LikeResponse> likePost(@PathVariable Long postId) {
         var user = authService.getCurrentUser();
-        postService.likePost(user, postId);
-        return ResponseEntity.ok().build();
+        return ResponseEntity.ok(postService.likePost(user, postId));
     }
 
     @DeleteMapping("/{postId}/like")
-    public ResponseEntity<Void> unlikePost(@PathVariable Long postId) {
+    public ResponseEntity<LikeResponse> unlikePost(@PathVariable Long postId) {
         var user = authService.getCurrentUser();
-        postService.unlikePost(user, postId);
-        return ResponseEntity.noContent().build();
+        return ResponseEntity.ok(postService.unlikePost(user, postId));
     }
 }
@@ -1,10 +1,15 @@
 package com.example.fakebook.controller;
 
+import com.example.fakebook.dto.common.CursorPage;
 import com.example.fakebook.dto.user.FollowResponse;
+import com.example.fakebook.dto.user.RelationshipResponse;
+import com.example.fakebook.dto.user.SuggestionResponse;
 import com.example.fakebook.dto.user.UpdateProfileRequest;
 import com.example.fakebook.dto.user.UserResponse;
+import com.example.fakebook.dto.user.UserSearchResponse;
 import com.example.fakebook.service.AuthService;
 import com.example.fakebook.service.FollowService;
+import com.example.fakebook.service.SuggestionService;
 import com.example.fakebook.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
@@ -19,11 +24,27 @@ public class UserController {
     private final AuthService authService;
     private final UserService userService;
     private final FollowService followService;
+    private final SuggestionService suggestionService;
 
-    public UserController(AuthService authService, UserService userService, FollowService followService) {
+    public UserController(AuthService authService,
+                          UserService userService,
+                          FollowService followService,
+                          SuggestionService suggestionService) {
         this.authService = authService;
         this.userService = userService;
         this.followService = followService;
+        this.suggestionService = suggestionService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<UserResponse>> getUsers(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(userService.getUserProfiles(ids));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<UserSearchResponse>> searchUsers(@RequestParam String prefix,
+                                                                @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(userService.searchUsers(prefix, size));
     }
 
     @GetMapping("/me")
@@ -34,22 +55,38 @@ public class UserController {
 
     @PutMapping("/me")
     public ResponseEntity<UserResponse> updateProfile(@Valid @RequestBody UpdateProfileRequest request) {
-        var user = authService.getCurrentUser();
+        var user = authService.loadCurrentUser();
         return ResponseEntity.ok(userService.updateProfile(user, request));
     }
 
+    @GetMapping("/me/suggestions")
+    public ResponseEntity<List<SuggestionResponse>> getSuggestions() {
+        var user = authService.getCurrentUser();
+        return ResponseEntity.ok(suggestionService.getSuggestions(user));
+    }
+
+    @GetMapping("/me/relationships")
+    public ResponseEntity<List<RelationshipResponse>> getRelationships(@RequestParam List<Long> ids) {
+        var user = authService.getCurrentUser();
+        return ResponseEntity.ok(followService.getRelationships(user, ids));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<UserResponse> getUser(@PathVariable Long id) {
         return ResponseEntity.ok(userService.getUserProfile(id));
     }
 
     @GetMapping("/{id}/followers")
-    public ResponseEntity<List<FollowResponse>> getFollowers(@PathVariable Long id) {
-        return ResponseEntity.ok(followService.getFollowers(id));
+    public ResponseEntity<CursorPage<FollowResponse>> getFollowers(@PathVariable Long id,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(followService.getFollowers(id, cursor, size));
     }
 
     @GetMapping("/{id}/following")
-    public ResponseEntity<List<FollowResponse>> getFollowing(@PathVariable Long id) {
-        return ResponseEntity.ok(followService.getFollowing(id));
+    public ResponseEntity<CursorPage<FollowResponse>> getFollowing(@PathVariable Long id,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(followService.getFollowing(id, cursor, size));
     }
 }
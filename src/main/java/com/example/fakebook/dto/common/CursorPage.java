@@ -0,0 +1,26 @@
+package com.example.fakebook.dto.common;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+
+    // Builds a page from rows fetched with limit + 1; the extra row only signals that another page exists.
+    public static <E, T> CursorPage<T> of(List<E> rows, int limit, Function<E, Cursor> cursorOf,
+                                          Function<List<E>, List<T>> mapper) {
+        boolean hasNext = rows.size() > limit;
+        List<E> content = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(content.get(content.size() - 1)).encode() : null;
+        return new CursorPage<>(mapper.apply(content), nextCursor, hasNext);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.fakebook.dto.post;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LikeResponse {
+    private Long postId;
+    private boolean liked;
+    private boolean changed;
+}
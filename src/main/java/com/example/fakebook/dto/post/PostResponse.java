@@ -1,9 +1,11 @@
 package com.example.fakebook.dto.post;
 
+import com.example.fakebook.dto.comment.CommentResponse;
 import com.example.fakebook.dto.user.UserResponse;
 import lombok.Data;
 
 import java.time.Instant;
+import java.util.List;
 
 @Data
 public class PostResponse {
@@ -12,5 +14,8 @@ public class PostResponse {
     private String imageUrl;
     private Instant createdAt;
     private long likeCount;
+    private boolean likedByMe;
+    private long commentCount;
+    private List<CommentResponse> latestComments;
     private UserResponse author;
 }
@@ -0,0 +1,15 @@
+package com.example.fakebook.dto.user;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkFollowRequest {
+
+    @NotEmpty
+    @Size(max = 1000)
+    private List<Long> userIds;
+}
@@ -0,0 +1,16 @@
+package com.example.fakebook.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkFollowResponse {
+    private int requested;
+    private int accepted;
+    private int followed;
+    private long elapsedMillis;
+    private long pairsPerSecond;
+}
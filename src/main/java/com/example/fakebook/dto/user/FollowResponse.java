@@ -2,9 +2,12 @@ package com.example.fakebook.dto.user;
 
 import lombok.Data;
 
+import java.time.Instant;
+
 @Data
 public class FollowResponse {
     private Long id;
     private String username;
     private String profileImageUrl;
+    private Instant followedAt;
 }
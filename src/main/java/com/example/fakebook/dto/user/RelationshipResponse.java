@@ -0,0 +1,15 @@
+package com.example.fakebook.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelationshipResponse {
+    private Long userId;
+    private boolean following;
+    private boolean followedBy;
+    private boolean mutual;
+}
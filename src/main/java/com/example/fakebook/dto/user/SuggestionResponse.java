@@ -0,0 +1,11 @@
+package com.example.fakebook.dto.user;
+
+import lombok.Data;
+
+@Data
+public class SuggestionResponse {
+    private Long id;
+    private String username;
+    private String profileImageUrl;
+    private int mutualCount;
+}
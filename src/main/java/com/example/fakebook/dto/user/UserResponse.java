@@ -12,4 +12,7 @@ public class UserResponse {
     private String bio;
     private String profileImageUrl;
     private Instant createdAt;
+    private long followerCount;
+    private long followingCount;
+    private long postCount;
 }
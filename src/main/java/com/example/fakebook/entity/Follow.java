@@ -6,7 +6,10 @@ import lombok.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "follows")
+@Table(name = "follows", indexes = {
+        @Index(name = "idx_follows_following_created", columnList = "following_id, created_at DESC, follower_id DESC"),
+        @Index(name = "idx_follows_follower_created", columnList = "follower_id, created_at DESC, following_id DESC")
+})
 @Getter
 @Setter
 @Builder
@@ -8,7 +8,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = @Index(name = "idx_posts_user_created", columnList = "user_id, created_at DESC, id DESC"))
 @Getter
 @Setter
 @Builder
@@ -33,6 +33,10 @@ public class Post {
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
 
+    @Column(name = "like_count", nullable = false, columnDefinition = "bigint default 0")
+    @Builder.Default
+    private long likeCount = 0L;
+
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private Set<Comment> comments = new HashSet<>();
@@ -6,7 +6,7 @@ import lombok.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "post_likes")
+@Table(name = "post_likes", indexes = @Index(name = "idx_post_likes_post", columnList = "post_id"))
 @Getter
 @Setter
 @Builder
@@ -0,0 +1,39 @@
+package com.example.fakebook.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "home_timelines", indexes = {
+        @Index(name = "idx_home_timelines_owner_created", columnList = "owner_id, created_at DESC, post_id DESC"),
+        @Index(name = "idx_home_timelines_owner_author", columnList = "owner_id, author_id"),
+        @Index(name = "idx_home_timelines_author", columnList = "author_id")
+})
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimelineEntry {
+
+    @EmbeddedId
+    private TimelineEntryId id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @MapsId("ownerId")
+    @JoinColumn(name = "owner_id")
+    private User owner;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @MapsId("postId")
+    @JoinColumn(name = "post_id")
+    private Post post;
+
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,22 @@
+package com.example.fakebook.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class TimelineEntryId implements Serializable {
+
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    @Column(name = "post_id")
+    private Long postId;
+}
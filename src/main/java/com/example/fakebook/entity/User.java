@@ -38,6 +38,19 @@ public class User {
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
 
+    // Maintained only by UserRepository's counter updates; never written back from a loaded entity.
+    @Column(name = "follower_count", nullable = false, updatable = false, columnDefinition = "bigint default 0")
+    @Builder.Default
+    private long followerCount = 0L;
+
+    @Column(name = "following_count", nullable = false, updatable = false, columnDefinition = "bigint default 0")
+    @Builder.Default
+    private long followingCount = 0L;
+
+    @Column(name = "post_count", nullable = false, updatable = false, columnDefinition = "bigint default 0")
+    @Builder.Default
+    private long postCount = 0L;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     private Set<Post> posts = new HashSet<>();
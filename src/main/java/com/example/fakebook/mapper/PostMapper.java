@@ -14,9 +14,12 @@ public interface PostMapper {
     @Mapping(target = "comments", ignore = true)
     @Mapping(target = "likes", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "likeCount", ignore = true)
     Post toEntity(PostRequest request);
 
     @Mapping(target = "author", source = "user")
-    @Mapping(target = "likeCount", ignore = true)
+    @Mapping(target = "likedByMe", ignore = true)
+    @Mapping(target = "commentCount", ignore = true)
+    @Mapping(target = "latestComments", ignore = true)
     PostResponse toResponse(Post post);
 }
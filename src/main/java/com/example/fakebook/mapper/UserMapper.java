@@ -1,11 +1,14 @@
 package com.example.fakebook.mapper;
 
 import com.example.fakebook.dto.user.FollowResponse;
+import com.example.fakebook.dto.user.SuggestionResponse;
 import com.example.fakebook.dto.user.UpdateProfileRequest;
 import com.example.fakebook.dto.user.UserResponse;
 import com.example.fakebook.entity.User;
+import com.example.fakebook.repository.FollowEdgeView;
 import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 
@@ -14,7 +17,10 @@ public interface UserMapper {
 
     UserResponse toUserResponse(User user);
 
-    FollowResponse toFollowResponse(User user);
+    FollowResponse toFollowResponse(FollowEdgeView edge);
+
+    @Mapping(target = "mutualCount", ignore = true)
+    SuggestionResponse toSuggestionResponse(User user);
 
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     void updateUserFromRequest(UpdateProfileRequest request, @MappingTarget User user);
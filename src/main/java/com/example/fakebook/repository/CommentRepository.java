@@ -2,10 +2,41 @@ package com.example.fakebook.repository;
 
 import com.example.fakebook.entity.Comment;
 import com.example.fakebook.entity.Post;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @EntityGraph(attributePaths = "user")
     List<Comment> findByPost(Post post);
+
+    @Query("select c from Comment c join fetch c.user where c.post.id = :postId "
+            + "order by c.createdAt asc, c.id asc")
+    List<Comment> findFirstByPostId(@Param("postId") Long postId, Pageable pageable);
+
+    @Query("select c from Comment c join fetch c.user where c.post.id = :postId "
+            + "and (c.createdAt > :createdAt or (c.createdAt = :createdAt and c.id > :commentId)) "
+            + "order by c.createdAt asc, c.id asc")
+    List<Comment> findByPostIdAfter(@Param("postId") Long postId,
+                                    @Param("createdAt") Instant createdAt,
+                                    @Param("commentId") Long commentId,
+                                    Pageable pageable);
+
+    @Query("select c.post.id as postId, count(c) as commentCount from Comment c "
+            + "where c.post.id in :postIds group by c.post.id")
+    List<PostCommentCount> countByPostIds(@Param("postIds") Collection<Long> postIds);
+
+    // Top-N per post in one statement: rank each post's comments newest first and keep the first N.
+    @Query("select c from Comment c join fetch c.user where c.id in ("
+            + "select r.id from (select c2.id as id, row_number() over "
+            + "(partition by c2.post.id order by c2.createdAt desc, c2.id desc) as rn "
+            + "from Comment c2 where c2.post.id in :postIds) r where r.rn <= :perPost) "
+            + "order by c.createdAt desc, c.id desc")
+    List<Comment> findLatestByPostIds(@Param("postIds") Collection<Long> postIds, @Param("perPost") int perPost);
 }
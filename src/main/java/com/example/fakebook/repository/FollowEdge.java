@@ -0,0 +1,12 @@
+package com.example.fakebook.repository;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+@Value
+public class FollowEdge {
+    Long followerId;
+    Long followingId;
+    Instant createdAt;
+}
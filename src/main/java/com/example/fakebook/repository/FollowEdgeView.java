@@ -0,0 +1,13 @@
+package com.example.fakebook.repository;
+
+import java.time.Instant;
+
+public interface FollowEdgeView {
+    Long getId();
+
+    String getUsername();
+
+    String getProfileImageUrl();
+
+    Instant getFollowedAt();
+}
@@ -2,14 +2,64 @@ package com.example.fakebook.repository;
 
 import com.example.fakebook.entity.Follow;
 import com.example.fakebook.entity.FollowId;
-import com.example.fakebook.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface FollowRepository extends JpaRepository<Follow, FollowId> {
-    boolean existsByFollowerAndFollowing(User follower, User following);
-    void deleteByFollowerAndFollowing(User follower, User following);
-    List<Follow> findAllByFollower(User follower);
-    List<Follow> findAllByFollowing(User following);
+    @Modifying
+    @Query(value = """
+            INSERT INTO follows (follower_id, following_id, created_at)
+            VALUES (:followerId, :followingId, :createdAt)
+            ON CONFLICT DO NOTHING""", nativeQuery = true)
+    int insertIfAbsent(@Param("followerId") Long followerId, @Param("followingId") Long followingId,
+                       @Param("createdAt") Instant createdAt);
+
+    @Modifying
+    @Query("delete from Follow f where f.id.followerId = :followerId and f.id.followingId = :followingId")
+    int deleteByFollowerIdAndFollowingId(@Param("followerId") Long followerId, @Param("followingId") Long followingId);
+
+    @Query("select u.id as id, u.username as username, u.profileImageUrl as profileImageUrl, f.createdAt as followedAt "
+            + "from Follow f join f.follower u where f.following.id = :userId "
+            + "order by f.createdAt desc, u.id desc")
+    List<FollowEdgeView> findFollowers(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("select u.id as id, u.username as username, u.profileImageUrl as profileImageUrl, f.createdAt as followedAt "
+            + "from Follow f join f.follower u where f.following.id = :userId "
+            + "and (f.createdAt < :followedAt or (f.createdAt = :followedAt and u.id < :cursorId)) "
+            + "order by f.createdAt desc, u.id desc")
+    List<FollowEdgeView> findFollowersBefore(@Param("userId") Long userId,
+                                             @Param("followedAt") Instant followedAt,
+                                             @Param("cursorId") Long cursorId,
+                                             Pageable pageable);
+
+    @Query("select u.id as id, u.username as username, u.profileImageUrl as profileImageUrl, f.createdAt as followedAt "
+            + "from Follow f join f.following u where f.follower.id = :userId "
+            + "order by f.createdAt desc, u.id desc")
+    List<FollowEdgeView> findFollowing(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("select u.id as id, u.username as username, u.profileImageUrl as profileImageUrl, f.createdAt as followedAt "
+            + "from Follow f join f.following u where f.follower.id = :userId "
+            + "and (f.createdAt < :followedAt or (f.createdAt = :followedAt and u.id < :cursorId)) "
+            + "order by f.createdAt desc, u.id desc")
+    List<FollowEdgeView> findFollowingBefore(@Param("userId") Long userId,
+                                             @Param("followedAt") Instant followedAt,
+                                             @Param("cursorId") Long cursorId,
+                                             Pageable pageable);
+
+    @Query("select f.id from Follow f "
+            + "where (f.id.followerId = :viewerId and f.id.followingId in :userIds) "
+            + "or (f.id.followingId = :viewerId and f.id.followerId in :userIds)")
+    List<FollowId> findEdgesBetween(@Param("viewerId") Long viewerId, @Param("userIds") Collection<Long> userIds);
+
+    @Query("select new com.example.fakebook.repository.FollowEdge(f.id.followerId, f.id.followingId, f.createdAt) "
+            + "from Follow f order by f.id.followerId, f.id.followingId")
+    Stream<FollowEdge> streamAllEdges();
 }
@@ -0,0 +1,7 @@
+package com.example.fakebook.repository;
+
+public interface PostCommentCount {
+    Long getPostId();
+
+    long getCommentCount();
+}
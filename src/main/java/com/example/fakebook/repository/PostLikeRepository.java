@@ -1,13 +1,29 @@
 package com.example.fakebook.repository;
 
-import com.example.fakebook.entity.Post;
 import com.example.fakebook.entity.PostLike;
 import com.example.fakebook.entity.PostLikeId;
-import com.example.fakebook.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface PostLikeRepository extends JpaRepository<PostLike, PostLikeId> {
-    boolean existsByPostAndUser(Post post, User user);
-    long countByPost(Post post);
-    void deleteByPostAndUser(Post post, User user);
+
+    @Query("select l.id.postId from PostLike l where l.id.userId = :userId and l.id.postId in :postIds")
+    List<Long> findLikedPostIds(@Param("userId") Long userId, @Param("postIds") Collection<Long> postIds);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO post_likes (user_id, post_id, created_at)
+            SELECT :userId, :postId, CURRENT_TIMESTAMP
+            WHERE EXISTS (SELECT 1 FROM posts WHERE id = :postId)
+            ON CONFLICT DO NOTHING""", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("postId") Long postId);
+
+    @Modifying
+    @Query("delete from PostLike l where l.id.userId = :userId and l.id.postId = :postId")
+    int deleteByUserIdAndPostId(@Param("userId") Long userId, @Param("postId") Long postId);
 }
@@ -4,11 +4,61 @@ import com.example.fakebook.entity.Post;
 import com.example.fakebook.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface PostRepository extends JpaRepository<Post, Long> {
+    @EntityGraph(attributePaths = "user")
     Page<Post> findAllByUser(User user, Pageable pageable);
-    Page<Post> findAllByUserIn(Collection<User> users, Pageable pageable);
+
+    @Query("select p from Post p join fetch p.user where p.id = :postId")
+    Optional<Post> findWithUserById(@Param("postId") Long postId);
+
+    @Query("select p from Post p join fetch p.user where p.user.id in :userIds order by p.createdAt desc, p.id desc")
+    List<Post> findRecentByUserIds(@Param("userIds") Collection<Long> userIds, Pageable pageable);
+
+    @Query("select p from Post p join fetch p.user where p.user.id in :userIds "
+            + "and (p.createdAt < :createdAt or (p.createdAt = :createdAt and p.id < :postId)) "
+            + "order by p.createdAt desc, p.id desc")
+    List<Post> findByUserIdsBefore(@Param("userIds") Collection<Long> userIds,
+                                   @Param("createdAt") Instant createdAt,
+                                   @Param("postId") Long postId,
+                                   Pageable pageable);
+
+    @Query("select p from Post p join fetch p.user where p.id in :postIds")
+    List<Post> findWithUserByIdIn(@Param("postIds") Collection<Long> postIds);
+
+    @Query("select new com.example.fakebook.repository.PostText(p.id, p.content) from Post p "
+            + "where p.id > :afterId order by p.id")
+    List<PostText> findTextsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("select count(p) from Post p where p.user.id in :userIds")
+    long countByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    @Query("select max(p.id) from Post p")
+    Long findMaxId();
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE posts p
+            SET like_count = c.actual
+            FROM (
+                SELECT p2.id, (SELECT count(*) FROM post_likes l WHERE l.post_id = p2.id) AS actual
+                FROM posts p2
+                WHERE p2.id BETWEEN :fromId AND :toId AND p2.id NOT IN (:excludedIds)
+            ) c
+            WHERE p.id = c.id AND p.like_count <> c.actual""", nativeQuery = true)
+    int reconcileLikeCounts(@Param("fromId") long fromId,
+                            @Param("toId") long toId,
+                            @Param("excludedIds") Collection<Long> excludedIds);
 }
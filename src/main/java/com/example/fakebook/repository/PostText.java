@@ -0,0 +1,9 @@
+package com.example.fakebook.repository;
+
+import lombok.Value;
+
+@Value
+public class PostText {
+    Long id;
+    String content;
+}
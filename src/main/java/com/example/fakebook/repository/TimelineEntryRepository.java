@@ -0,0 +1,150 @@
+package com.example.fakebook.repository;
+
+import com.example.fakebook.entity.Post;
+import com.example.fakebook.entity.TimelineEntry;
+import com.example.fakebook.entity.TimelineEntryId;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface TimelineEntryRepository extends JpaRepository<TimelineEntry, TimelineEntryId> {
+
+    @Query(value = "select p from TimelineEntry t join t.post p join fetch p.user where t.id.ownerId = :ownerId "
+            + "order by t.createdAt desc, t.id.postId desc",
+            countQuery = "select count(t) from TimelineEntry t where t.id.ownerId = :ownerId")
+    Page<Post> findPostsByOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    @Query("select p from TimelineEntry t join t.post p join fetch p.user where t.id.ownerId = :ownerId "
+            + "order by t.createdAt desc, t.id.postId desc")
+    List<Post> findRecentPostsByOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    @Query("select p from TimelineEntry t join t.post p join fetch p.user where t.id.ownerId = :ownerId "
+            + "and (t.createdAt < :createdAt or (t.createdAt = :createdAt and t.id.postId < :postId)) "
+            + "order by t.createdAt desc, t.id.postId desc")
+    List<Post> findPostsByOwnerIdBefore(@Param("ownerId") Long ownerId,
+                                        @Param("createdAt") Instant createdAt,
+                                        @Param("postId") Long postId,
+                                        Pageable pageable);
+
+    @Query("select count(t) from TimelineEntry t where t.id.ownerId = :ownerId")
+    long countByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("select count(t) from TimelineEntry t where t.id.ownerId = :ownerId and t.authorId not in :authorIds")
+    long countByOwnerIdExcludingAuthors(@Param("ownerId") Long ownerId,
+                                        @Param("authorIds") Collection<Long> authorIds);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO home_timelines (owner_id, post_id, author_id, created_at)
+            VALUES (:ownerId, :postId, :authorId, :createdAt)
+            ON CONFLICT DO NOTHING""", nativeQuery = true)
+    int insertEntry(@Param("ownerId") Long ownerId,
+                    @Param("postId") Long postId,
+                    @Param("authorId") Long authorId,
+                    @Param("createdAt") Instant createdAt);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO home_timelines (owner_id, post_id, author_id, created_at)
+            SELECT f.follower_id, :postId, :authorId, :createdAt
+            FROM follows f
+            WHERE f.following_id = :authorId
+            ON CONFLICT DO NOTHING""", nativeQuery = true)
+    int fanOutToFollowers(@Param("postId") Long postId,
+                          @Param("authorId") Long authorId,
+                          @Param("createdAt") Instant createdAt);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO home_timelines (owner_id, post_id, author_id, created_at)
+            SELECT :ownerId, p.id, p.user_id, p.created_at
+            FROM posts p
+            WHERE p.user_id = :authorId
+            ORDER BY p.created_at DESC, p.id DESC
+            LIMIT :limit
+            ON CONFLICT DO NOTHING""", nativeQuery = true)
+    int backfillFromAuthor(@Param("ownerId") Long ownerId,
+                           @Param("authorId") Long authorId,
+                           @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO home_timelines (owner_id, post_id, author_id, created_at)
+            SELECT :ownerId, p.id, p.user_id, p.created_at
+            FROM posts p
+            WHERE p.user_id IN (:authorIds)
+            ORDER BY p.created_at DESC, p.id DESC
+            LIMIT :limit
+            ON CONFLICT DO NOTHING""", nativeQuery = true)
+    int backfillFromAuthors(@Param("ownerId") Long ownerId,
+                            @Param("authorIds") Collection<Long> authorIds,
+                            @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO home_timelines (owner_id, post_id, author_id, created_at)
+            SELECT f.follower_id, p.id, p.user_id, p.created_at
+            FROM follows f
+            JOIN (
+                SELECT id, user_id, created_at
+                FROM posts
+                WHERE user_id = :authorId
+                ORDER BY created_at DESC, id DESC
+                LIMIT :limit
+            ) p ON p.user_id = f.following_id
+            WHERE f.following_id = :authorId
+            ON CONFLICT DO NOTHING""", nativeQuery = true)
+    int backfillFollowersOf(@Param("authorId") Long authorId, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO home_timelines (owner_id, post_id, author_id, created_at)
+            SELECT owner_id, post_id, author_id, created_at
+            FROM (
+                SELECT s.owner_id, p.id AS post_id, p.user_id AS author_id, p.created_at,
+                       row_number() OVER (PARTITION BY s.owner_id ORDER BY p.created_at DESC, p.id DESC) AS rn
+                FROM (
+                    SELECT follower_id AS owner_id, following_id AS author_id FROM follows
+                    UNION
+                    SELECT id, id FROM users
+                ) s
+                JOIN posts p ON p.user_id = s.author_id
+            ) ranked
+            WHERE rn <= :capacity
+            ON CONFLICT DO NOTHING""", nativeQuery = true)
+    int rebuildAll(@Param("capacity") int capacity);
+
+    @Modifying
+    @Query(value = """
+            DELETE FROM home_timelines h
+            USING (
+                SELECT owner_id, post_id
+                FROM (
+                    SELECT owner_id, post_id,
+                           row_number() OVER (PARTITION BY owner_id ORDER BY created_at DESC, post_id DESC) AS rn
+                    FROM home_timelines
+                ) ranked
+                WHERE rn > :capacity
+            ) stale
+            WHERE h.owner_id = stale.owner_id AND h.post_id = stale.post_id""", nativeQuery = true)
+    int trimToCapacity(@Param("capacity") int capacity);
+
+    @Modifying
+    @Query("delete from TimelineEntry t where t.id.ownerId = :ownerId and t.authorId = :authorId")
+    int deleteByOwnerIdAndAuthorId(@Param("ownerId") Long ownerId, @Param("authorId") Long authorId);
+
+    @Modifying
+    @Query("delete from TimelineEntry t where t.authorId = :authorId and t.id.ownerId <> :authorId")
+    int deleteFollowerEntriesByAuthorId(@Param("authorId") Long authorId);
+
+    @Modifying
+    @Query("delete from TimelineEntry t where t.id.postId = :postId")
+    int deleteByPostId(@Param("postId") Long postId);
+}
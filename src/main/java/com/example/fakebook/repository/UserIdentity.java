@@ -0,0 +1,10 @@
+package com.example.fakebook.repository;
+
+import lombok.Value;
+
+@Value
+public class UserIdentity {
+    Long id;
+    String username;
+    String email;
+}
@@ -2,12 +2,55 @@ package com.example.fakebook.repository;
 
 import com.example.fakebook.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+
+    @Query("select new com.example.fakebook.repository.UserIdentity(u.id, u.username, u.email) from User u")
+    Stream<UserIdentity> streamAllIdentities();
+
+    @Query("select max(u.id) from User u")
+    Long findMaxId();
+
+    @Modifying
+    @Query(value = """
+            UPDATE users
+            SET following_count = following_count + CASE WHEN id = :followerId THEN :delta ELSE 0 END,
+                follower_count = follower_count + CASE WHEN id = :followingId THEN :delta ELSE 0 END
+            WHERE id IN (:followerId, :followingId)""", nativeQuery = true)
+    int adjustFollowCounts(@Param("followerId") Long followerId,
+                           @Param("followingId") Long followingId,
+                           @Param("delta") int delta);
+
+    @Modifying
+    @Query(value = "UPDATE users SET post_count = post_count + :delta WHERE id = :userId", nativeQuery = true)
+    int adjustPostCount(@Param("userId") Long userId, @Param("delta") int delta);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE users u
+            SET follower_count = c.followers, following_count = c.following, post_count = c.posts
+            FROM (
+                SELECT u2.id,
+                       (SELECT count(*) FROM follows f WHERE f.following_id = u2.id) AS followers,
+                       (SELECT count(*) FROM follows f WHERE f.follower_id = u2.id) AS following,
+                       (SELECT count(*) FROM posts p WHERE p.user_id = u2.id) AS posts
+                FROM users u2
+                WHERE u2.id BETWEEN :fromId AND :toId
+            ) c
+            WHERE u.id = c.id
+              AND (u.follower_count <> c.followers OR u.following_count <> c.following OR u.post_count <> c.posts)""",
+            nativeQuery = true)
+    int reconcileCounts(@Param("fromId") long fromId, @Param("toId") long toId);
 }
@@ -0,0 +1,17 @@
+package com.example.fakebook.security;
+
+import lombok.Value;
+
+import java.security.Principal;
+
+// Principal rebuilt from signed token claims on every request, so authentication needs no user lookup.
+@Value
+public class AuthenticatedUser implements Principal {
+    Long id;
+    String username;
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
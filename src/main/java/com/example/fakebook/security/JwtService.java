@@ -1,7 +1,9 @@
 package com.example.fakebook.security;
 
+import com.example.fakebook.entity.User;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -18,12 +20,17 @@ import java.util.function.Function;
 @Service
 public class JwtService {
 
-    private final String secret;
+    static final String USER_ID_CLAIM = "uid";
+
+    // Key and parser are immutable and thread-safe, so they are built once instead of per token.
+    private final Key signingKey;
+    private final JwtParser parser;
     private final long expiration;
 
     public JwtService(@Value("${jwt.secret}") String secret,
                       @Value("${jwt.expiration}") long expiration) {
-        this.secret = secret;
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
         this.expiration = expiration;
     }
 
@@ -32,12 +39,11 @@ public class JwtService {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> resolver) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return resolver.apply(claims);
+        return resolver.apply(parser.parseClaimsJws(token).getBody());
+    }
+
+    public String generateToken(User user) {
+        return generateToken(Map.of(USER_ID_CLAIM, user.getId()), user.getUsername());
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -45,36 +51,42 @@ public class JwtService {
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
+        return generateToken(extraClaims, userDetails.getUsername());
+    }
+
+    private String generateToken(Map<String, Object> extraClaims, String subject) {
         Date now = new Date();
         Date expiry = new Date(now.getTime() + expiration);
         return Jwts.builder()
                 .setClaims(extraClaims)
-                .setSubject(userDetails.getUsername())
+                .setSubject(subject)
                 .setIssuedAt(now)
                 .setExpiration(expiry)
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    // The parser rejects expired tokens itself, so one verified parse covers signature, subject and expiry.
     public boolean isTokenValid(String token, UserDetails userDetails) {
         try {
-            String username = extractUsername(token);
-            return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+            return userDetails.getUsername().equals(extractUsername(token));
         } catch (JwtException | IllegalArgumentException ex) {
             return false;
         }
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    // Verifies the token once and returns its claims, or null when it is malformed, tampered with,
+    // expired or missing the user claims.
+    public VerifiedToken validate(String token) {
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            Number userId = claims.get(USER_ID_CLAIM, Number.class);
+            if (userId == null || claims.getSubject() == null || claims.getExpiration() == null) {
+                return null;
+            }
+            return new VerifiedToken(userId.longValue(), claims.getSubject(), claims.getExpiration().toInstant());
+        } catch (JwtException | IllegalArgumentException ex) {
+            return null;
+        }
     }
 }
@@ -0,0 +1,17 @@
+package com.example.fakebook.security;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+// Claims of a token whose signature and expiry have been checked, read out once from the parsed JWT.
+@Value
+public class VerifiedToken {
+    Long userId;
+    String username;
+    Instant expiresAt;
+
+    public AuthenticatedUser toPrincipal() {
+        return new AuthenticatedUser(userId, username);
+    }
+}
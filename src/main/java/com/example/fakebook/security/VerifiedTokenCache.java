@@ -0,0 +1,111 @@
+package com.example.fakebook.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+// Skips signature verification and claim parsing for bearer tokens seen recently. Entries are keyed by
+// a SHA-256 digest so raw tokens are never held in memory, and expire no later than the token itself.
+// Only successfully verified tokens are cached, so garbage tokens cannot evict real ones. Token expiry is
+// wall-clock time, so the cache's ticker is derived from the same Clock the freshness check uses.
+@Component
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    });
+
+    private final JwtService jwtService;
+    private final Cache<String, VerifiedToken> cache;
+    private final Clock clock;
+
+    @Autowired
+    public VerifiedTokenCache(JwtService jwtService,
+                              MeterRegistry meterRegistry,
+                              @Value("${jwt.cache.max-size:100000}") long maxSize,
+                              @Value("${jwt.cache.max-ttl-ms:300000}") long maxTtlMs) {
+        this(jwtService, meterRegistry, maxSize, maxTtlMs, Clock.systemUTC());
+    }
+
+    VerifiedTokenCache(JwtService jwtService, MeterRegistry meterRegistry, long maxSize, long maxTtlMs, Clock clock) {
+        this.jwtService = jwtService;
+        this.clock = clock;
+        Ticker ticker = () -> epochNanos(clock.instant());
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry(Duration.ofMillis(maxTtlMs).toNanos()))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified");
+        Gauge.builder("jwt.verified.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Share of bearer token lookups answered without verifying the signature")
+                .register(meterRegistry);
+    }
+
+    public VerifiedToken validate(String token) {
+        String key = digest(token);
+        VerifiedToken cached = cache.getIfPresent(key);
+        if (cached != null && cached.getExpiresAt().isAfter(clock.instant())) {
+            return cached;
+        }
+        VerifiedToken verified = jwtService.validate(token);
+        if (verified != null) {
+            cache.put(key, verified);
+        }
+        return verified;
+    }
+
+    private static String digest(String token) {
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+
+    private static long epochNanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        private final long maxTtlNanos;
+
+        private UntilTokenExpiry(long maxTtlNanos) {
+            this.maxTtlNanos = maxTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            long untilExpiry = epochNanos(value.getExpiresAt()) - currentTime;
+            return Math.max(0, Math.min(maxTtlNanos, untilExpiry));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -6,14 +6,17 @@ import com.example.fakebook.dto.auth.RegisterRequest;
 import com.example.fakebook.entity.User;
 import com.example.fakebook.exception.BadRequestException;
 import com.example.fakebook.repository.UserRepository;
+import com.example.fakebook.security.AuthenticatedUser;
 import com.example.fakebook.security.JwtService;
+import com.example.fakebook.security.PasswordHashingExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
@@ -24,57 +27,85 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final UserExistenceFilter userExistenceFilter;
+    private final UserSearchIndex userSearchIndex;
 
     public AuthService(UserRepository userRepository,
                        PasswordEncoder passwordEncoder,
                        AuthenticationManager authenticationManager,
                        JwtService jwtService,
-                       UserDetailsService userDetailsService) {
+                       PasswordHashingExecutor passwordHashingExecutor,
+                       UserExistenceFilter userExistenceFilter,
+                       UserSearchIndex userSearchIndex) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.jwtService = jwtService;
-        this.userDetailsService = userDetailsService;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.userExistenceFilter = userExistenceFilter;
+        this.userSearchIndex = userSearchIndex;
     }
 
+    // Not transactional so that no pooled connection is held while waiting for the hashing pool.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse register(RegisterRequest request) {
-        if (userRepository.existsByUsername(request.getUsername())) {
+        if (userExistenceFilter.existsByUsername(request.getUsername())) {
             throw new BadRequestException("Username already in use");
         }
-        if (userRepository.existsByEmail(request.getEmail())) {
+        if (userExistenceFilter.existsByEmail(request.getEmail())) {
             throw new BadRequestException("Email already in use");
         }
+        String passwordHash = passwordHashingExecutor.call(() -> passwordEncoder.encode(request.getPassword()));
         User user = User.builder()
                 .username(request.getUsername())
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHash)
                 .build();
-        userRepository.save(user);
-
-        var userDetails = userDetailsService.loadUserByUsername(user.getUsername());
-        String token = jwtService.generateToken(userDetails);
-        return new AuthResponse(token);
+        try {
+            userRepository.save(user);
+        } catch (DataIntegrityViolationException ex) {
+            // Registered concurrently, possibly through another instance whose filter this one has not seen yet.
+            throw new BadRequestException("Username or email already in use");
+        }
+        userExistenceFilter.add(user);
+        userSearchIndex.add(user.getId(), user.getUsername());
+        return new AuthResponse(jwtService.generateToken(user));
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse login(LoginRequest request) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getUsernameOrEmail(), request.getPassword()));
+        Authentication authentication = passwordHashingExecutor.call(() -> authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(request.getUsernameOrEmail(), request.getPassword())));
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String username = authentication.getName();
-        var userDetails = userDetailsService.loadUserByUsername(username);
-        String token = jwtService.generateToken(userDetails);
-        return new AuthResponse(token);
+        User user = userRepository.findByUsername(authentication.getName())
+                .orElseThrow(() -> new BadRequestException("User not found"));
+        return new AuthResponse(jwtService.generateToken(user));
     }
 
+    // Detached reference carrying only the id and username from the token. Services
+    // that need other columns or want to modify the user must load it, see loadCurrentUser.
+    @Transactional(propagation = Propagation.SUPPORTS)
     public User getCurrentUser() {
+        AuthenticatedUser principal = getPrincipal();
+        return User.builder()
+                .id(principal.getId())
+                .username(principal.getUsername())
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public User loadCurrentUser() {
+        return userRepository.findById(getPrincipal().getId())
+                .orElseThrow(() -> new BadRequestException("User not found"));
+    }
+
+    private AuthenticatedUser getPrincipal() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()
-                || "anonymousUser".equals(authentication.getName())) {
+                || !(authentication.getPrincipal() instanceof AuthenticatedUser principal)) {
             throw new BadRequestException("No authenticated user found");
         }
-        String username = authentication.getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new BadRequestException("User not found"));
+        return principal;
     }
 }
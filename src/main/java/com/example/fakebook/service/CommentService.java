@@ -1,6 +1,8 @@
 package com.example.fakebook.service;
 
 import com.example.fakebook.dto.comment.CommentRequest;
+import com.example.fakebook.dto.common.Cursor;
+import com.example.fakebook.dto.common.CursorPage;
 import com.example.fakebook.dto.comment.CommentResponse;
 import com.example.fakebook.entity.Comment;
 import com.example.fakebook.entity.Post;
@@ -10,6 +12,9 @@ import com.example.fakebook.exception.ResourceNotFoundException;
 import com.example.fakebook.mapper.CommentMapper;
 import com.example.fakebook.repository.CommentRepository;
 import com.example.fakebook.repository.PostRepository;
+import com.example.fakebook.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,12 +26,23 @@ public class CommentService {
 
     private final CommentRepository commentRepository;
     private final PostRepository postRepository;
+    private final UserRepository userRepository;
     private final CommentMapper commentMapper;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
-    public CommentService(CommentRepository commentRepository, PostRepository postRepository, CommentMapper commentMapper) {
+    public CommentService(CommentRepository commentRepository,
+                          PostRepository postRepository,
+                          UserRepository userRepository,
+                          CommentMapper commentMapper,
+                          @Value("${comments.page.default-size:20}") int defaultPageSize,
+                          @Value("${comments.page.max-size:100}") int maxPageSize) {
         this.commentRepository = commentRepository;
         this.postRepository = postRepository;
+        this.userRepository = userRepository;
         this.commentMapper = commentMapper;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
     public CommentResponse addComment(User user, Long postId, CommentRequest request) {
@@ -34,7 +50,7 @@ public class CommentService {
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found"));
         Comment comment = commentMapper.toEntity(request);
         comment.setPost(post);
-        comment.setUser(user);
+        comment.setUser(userRepository.getReferenceById(user.getId()));
         Comment saved = commentRepository.save(comment);
         return commentMapper.toResponse(saved);
     }
@@ -65,4 +81,18 @@ public class CommentService {
                 .map(commentMapper::toResponse)
                 .toList();
     }
+
+    public CursorPage<CommentResponse> getComments(Long postId, String cursor, Integer size) {
+        int limit = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        Cursor after = Cursor.decode(cursor);
+        PageRequest head = PageRequest.of(0, limit + 1);
+        List<Comment> comments = after == null
+                ? commentRepository.findFirstByPostId(postId, head)
+                : commentRepository.findByPostIdAfter(postId, after.getCreatedAt(), after.getId(), head);
+        if (comments.isEmpty() && !postRepository.existsById(postId)) {
+            throw new ResourceNotFoundException("Post not found");
+        }
+        return CursorPage.of(comments, limit, last -> new Cursor(last.getCreatedAt(), last.getId()),
+                content -> content.stream().map(commentMapper::toResponse).toList());
+    }
 }
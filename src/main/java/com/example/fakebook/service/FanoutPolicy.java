@@ -0,0 +1,33 @@
+package com.example.fakebook.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+@Component
+public class FanoutPolicy {
+
+    private final long followerThreshold;
+    private volatile Set<Long> pullAuthorIds = Set.of();
+
+    public FanoutPolicy(@Value("${feed.fanout.follower-threshold:10000}") long followerThreshold) {
+        this.followerThreshold = followerThreshold;
+    }
+
+    public long getFollowerThreshold() {
+        return followerThreshold;
+    }
+
+    public boolean shouldFanOut(Long authorId) {
+        return !pullAuthorIds.contains(authorId);
+    }
+
+    public Set<Long> getPullAuthorIds() {
+        return pullAuthorIds;
+    }
+
+    public void setPullAuthorIds(Set<Long> pullAuthorIds) {
+        this.pullAuthorIds = Set.copyOf(pullAuthorIds);
+    }
+}
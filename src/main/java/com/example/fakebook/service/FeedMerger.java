@@ -0,0 +1,59 @@
+package com.example.fakebook.service;
+
+import com.example.fakebook.entity.Post;
+
+import java.util.*;
+
+final class FeedMerger {
+
+    static final Comparator<Post> NEWEST_FIRST = Comparator.comparing(Post::getCreatedAt)
+            .thenComparing(Post::getId)
+            .reversed();
+
+    private FeedMerger() {
+    }
+
+    /**
+     * Merges streams that are each already sorted newest first, dropping posts that appear in more
+     * than one stream, and returns {@code limit} posts after skipping the first {@code skip}.
+     */
+    static List<Post> merge(List<List<Post>> sources, long skip, int limit) {
+        PriorityQueue<Head> heads = new PriorityQueue<>((a, b) -> NEWEST_FIRST.compare(a.current, b.current));
+        for (List<Post> source : sources) {
+            Iterator<Post> iterator = source.iterator();
+            if (iterator.hasNext()) {
+                heads.add(new Head(iterator.next(), iterator));
+            }
+        }
+        List<Post> merged = new ArrayList<>(limit);
+        Set<Long> seen = new HashSet<>();
+        long skipped = 0;
+        while (!heads.isEmpty() && merged.size() < limit) {
+            Head head = heads.poll();
+            Post post = head.current;
+            if (head.remaining.hasNext()) {
+                head.current = head.remaining.next();
+                heads.add(head);
+            }
+            if (!seen.add(post.getId())) {
+                continue;
+            }
+            if (skipped < skip) {
+                skipped++;
+            } else {
+                merged.add(post);
+            }
+        }
+        return merged;
+    }
+
+    private static final class Head {
+        private Post current;
+        private final Iterator<Post> remaining;
+
+        private Head(Post current, Iterator<Post> remaining) {
+            this.current = current;
+            this.remaining = remaining;
+        }
+    }
+}
@@ -0,0 +1,521 @@
+package com.example.fakebook.service;
+
+import com.example.fakebook.repository.FollowEdge;
+import com.example.fakebook.repository.FollowRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+@Component
+public class FollowGraph {
+
+    private static final Logger log = LoggerFactory.getLogger(FollowGraph.class);
+
+    private static final long[] NONE = new long[0];
+    private static final int[] NO_MINUTES = new int[0];
+    private static final EdgeList NO_FOLLOWING = new EdgeList(NONE, NO_MINUTES, NONE, NO_MINUTES, NONE);
+    private static final EdgeList NO_FOLLOWERS = new EdgeList(NONE, null, NONE, null, NONE);
+    private static final int MIN_DELTA = 32;
+    private static final int LOCK_STRIPES = 64;
+
+    // Rough per-user cost of a ConcurrentHashMap<Long, ?> entry (node, boxed key, table slot), of an
+    // array header and of an edge list holder. Edges cost 8 bytes per direction plus 4 bytes for the
+    // follow minute.
+    private static final long ENTRY_BYTES = 32 + 16 + 8;
+    private static final long ARRAY_HEADER_BYTES = 16;
+    private static final long LIST_HOLDER_BYTES = 32;
+
+    private final FollowRepository followRepository;
+
+    // Edge lists are immutable: writers swap in new ones so readers need no locking. Edits of the same
+    // edge share a follower stripe, so both directions change together; the journal lock only keeps
+    // edits out while reload() starts its journal and swaps the graph.
+    private volatile Adjacency adjacency = new Adjacency(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+    private final ReentrantLock[] stripes = new ReentrantLock[LOCK_STRIPES];
+    private final ReentrantReadWriteLock journalLock = new ReentrantReadWriteLock();
+    private List<Edit> journal;
+
+    public FollowGraph(FollowRepository followRepository, MeterRegistry meterRegistry) {
+        this.followRepository = followRepository;
+        Arrays.setAll(stripes, i -> new ReentrantLock());
+        Gauge.builder("follow.graph.edges", this, FollowGraph::edgeCount)
+                .description("Follow edges held in the in-memory follow graph")
+                .register(meterRegistry);
+        Gauge.builder("follow.graph.memory", this, FollowGraph::estimatedBytes)
+                .description("Estimated heap used by the in-memory follow graph")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public boolean isFollowing(long followerId, long followingId) {
+        return following(followerId).contains(followingId);
+    }
+
+    public long[] getFollowingIds(long userId) {
+        return following(userId).toIds();
+    }
+
+    public int followingCount(long userId) {
+        return following(userId).size();
+    }
+
+    public int followerCount(long userId) {
+        return adjacency.followers.getOrDefault(userId, NO_FOLLOWERS).size();
+    }
+
+    public Set<Long> getUsersFollowingAnyone() {
+        return Set.copyOf(adjacency.following.keySet());
+    }
+
+    // Visits each account the user follows with the minute (since the epoch) the follow was made.
+    public void forEachFollowing(long userId, FollowVisitor visitor) {
+        following(userId).forEach(visitor);
+    }
+
+    public List<Long> filterFollowing(long followerId, Collection<Long> candidateIds) {
+        EdgeList following = following(followerId);
+        if (following.size() == 0) {
+            return List.of();
+        }
+        return candidateIds.stream()
+                .filter(following::contains)
+                .toList();
+    }
+
+    public Set<Long> findUsersWithFollowerCountAtLeast(long threshold) {
+        Set<Long> userIds = new HashSet<>();
+        adjacency.followers.forEach((userId, followers) -> {
+            if (followers.size() >= threshold) {
+                userIds.add(userId);
+            }
+        });
+        return userIds;
+    }
+
+    public void addEdge(long followerId, long followingId, Instant followedAt) {
+        edit(new Edit(followerId, followingId, toMinutes(followedAt), true));
+    }
+
+    public void removeEdge(long followerId, long followingId) {
+        edit(new Edit(followerId, followingId, 0, false));
+    }
+
+    // Merges a batch of new follows with one copy per affected list instead of one per edge, so importing
+    // many followers of one account stays linear in its follower count.
+    public void addEdges(Collection<FollowEdge> edges) {
+        if (edges.isEmpty()) {
+            return;
+        }
+        Map<Long, EdgeListBuilder> following = new HashMap<>();
+        Map<Long, EdgeListBuilder> followers = new HashMap<>();
+        Set<Integer> stripeIndexes = new TreeSet<>();
+        List<Edit> edits = new ArrayList<>(edges.size());
+        for (FollowEdge edge : edges) {
+            int minutes = toMinutes(edge.getCreatedAt());
+            following.computeIfAbsent(edge.getFollowerId(), id -> new EdgeListBuilder())
+                    .add(edge.getFollowingId(), minutes);
+            followers.computeIfAbsent(edge.getFollowingId(), id -> new EdgeListBuilder())
+                    .add(edge.getFollowerId(), minutes);
+            stripeIndexes.add(stripeIndex(edge.getFollowerId()));
+            edits.add(new Edit(edge.getFollowerId(), edge.getFollowingId(), minutes, true));
+        }
+        journalLock.readLock().lock();
+        // Stripes are taken in index order; single edits hold only one, so this cannot deadlock.
+        stripeIndexes.forEach(index -> stripes[index].lock());
+        try {
+            Adjacency target = adjacency;
+            following.forEach((userId, builder) -> target.following.compute(userId, (id, list) ->
+                    nullIfEmpty((list == null ? NO_FOLLOWING : list).withAll(builder.toEdgeList(true)))));
+            followers.forEach((userId, builder) -> target.followers.compute(userId, (id, list) ->
+                    nullIfEmpty((list == null ? NO_FOLLOWERS : list).withAll(builder.toEdgeList(false)))));
+            if (journal != null) {
+                journal.addAll(edits);
+            }
+        } finally {
+            stripeIndexes.forEach(index -> stripes[index].unlock());
+            journalLock.readLock().unlock();
+        }
+    }
+
+    public long edgeCount() {
+        return adjacency.following.values().stream().mapToLong(EdgeList::size).sum();
+    }
+
+    public long estimatedBytes() {
+        Adjacency current = adjacency;
+        long bytes = 0;
+        for (EdgeList following : current.following.values()) {
+            bytes += ENTRY_BYTES + following.estimatedBytes();
+        }
+        for (EdgeList followers : current.followers.values()) {
+            bytes += ENTRY_BYTES + followers.estimatedBytes();
+        }
+        return bytes;
+    }
+
+    public long bytesPerMillionEdges() {
+        long edges = edgeCount();
+        return edges == 0 ? 0 : estimatedBytes() * 1_000_000 / edges;
+    }
+
+    // Rebuilds from the follows table. Edits made while the snapshot is read are journaled and
+    // replayed on top of it; add/remove are idempotent, so replaying one the snapshot already
+    // contains is harmless.
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Scheduled(fixedDelayString = "${follow.graph.reload-interval-ms:600000}",
+            initialDelayString = "${follow.graph.reload-interval-ms:600000}")
+    @Transactional(readOnly = true)
+    public void reload() {
+        setJournal(Collections.synchronizedList(new ArrayList<>()));
+        Adjacency loaded;
+        try (Stream<FollowEdge> edges = followRepository.streamAllEdges()) {
+            loaded = build(edges);
+        } catch (RuntimeException ex) {
+            setJournal(null);
+            throw ex;
+        }
+        journalLock.writeLock().lock();
+        try {
+            for (Edit edit : journal) {
+                apply(loaded, edit);
+            }
+            journal = null;
+            adjacency = loaded;
+        } finally {
+            journalLock.writeLock().unlock();
+        }
+        log.info("Loaded follow graph with {} edges (~{} KiB, ~{} KiB per million edges)",
+                edgeCount(), estimatedBytes() / 1024, bytesPerMillionEdges() / 1024);
+    }
+
+    private EdgeList following(long userId) {
+        return adjacency.following.getOrDefault(userId, NO_FOLLOWING);
+    }
+
+    private void edit(Edit edit) {
+        ReentrantLock stripe = stripes[stripeIndex(edit.followerId)];
+        journalLock.readLock().lock();
+        stripe.lock();
+        try {
+            apply(adjacency, edit);
+            if (journal != null) {
+                journal.add(edit);
+            }
+        } finally {
+            stripe.unlock();
+            journalLock.readLock().unlock();
+        }
+    }
+
+    private static int stripeIndex(long followerId) {
+        return Math.floorMod(Long.hashCode(followerId), LOCK_STRIPES);
+    }
+
+    private void setJournal(List<Edit> edits) {
+        journalLock.writeLock().lock();
+        try {
+            journal = edits;
+        } finally {
+            journalLock.writeLock().unlock();
+        }
+    }
+
+    private static Adjacency build(Stream<FollowEdge> edges) {
+        Map<Long, EdgeListBuilder> following = new HashMap<>();
+        Map<Long, EdgeListBuilder> followers = new HashMap<>();
+        edges.forEach(edge -> {
+            int minutes = toMinutes(edge.getCreatedAt());
+            following.computeIfAbsent(edge.getFollowerId(), id -> new EdgeListBuilder())
+                    .add(edge.getFollowingId(), minutes);
+            followers.computeIfAbsent(edge.getFollowingId(), id -> new EdgeListBuilder())
+                    .add(edge.getFollowerId(), minutes);
+        });
+        ConcurrentHashMap<Long, EdgeList> frozenFollowing = new ConcurrentHashMap<>(capacityFor(following.size()));
+        following.forEach((userId, builder) -> frozenFollowing.put(userId, builder.toEdgeList(true)));
+        ConcurrentHashMap<Long, EdgeList> frozenFollowers = new ConcurrentHashMap<>(capacityFor(followers.size()));
+        followers.forEach((userId, builder) -> frozenFollowers.put(userId, builder.toEdgeList(false)));
+        return new Adjacency(frozenFollowing, frozenFollowers);
+    }
+
+    private static int capacityFor(int size) {
+        return Math.max(16, size * 4 / 3);
+    }
+
+    private static void apply(Adjacency target, Edit edit) {
+        target.following.compute(edit.followerId, (id, list) -> nullIfEmpty(edit.add
+                ? (list == null ? NO_FOLLOWING : list).with(edit.followingId, edit.followedAtMinutes)
+                : list == null ? null : list.without(edit.followingId)));
+        target.followers.compute(edit.followingId, (id, list) -> nullIfEmpty(edit.add
+                ? (list == null ? NO_FOLLOWERS : list).with(edit.followerId, 0)
+                : list == null ? null : list.without(edit.followerId)));
+    }
+
+    private static EdgeList nullIfEmpty(EdgeList list) {
+        return list == null || list.size() == 0 ? null : list;
+    }
+
+    private static long[] insertAt(long[] values, int at, long value) {
+        long[] next = new long[values.length + 1];
+        System.arraycopy(values, 0, next, 0, at);
+        next[at] = value;
+        System.arraycopy(values, at, next, at + 1, values.length - at);
+        return next;
+    }
+
+    private static int[] insertAt(int[] values, int at, int value) {
+        if (values == null) {
+            return null;
+        }
+        int[] next = new int[values.length + 1];
+        System.arraycopy(values, 0, next, 0, at);
+        next[at] = value;
+        System.arraycopy(values, at, next, at + 1, values.length - at);
+        return next;
+    }
+
+    private static long[] removeAt(long[] values, int at) {
+        long[] next = new long[values.length - 1];
+        System.arraycopy(values, 0, next, 0, at);
+        System.arraycopy(values, at + 1, next, at, values.length - at - 1);
+        return next;
+    }
+
+    private static int[] removeAt(int[] values, int at) {
+        if (values == null) {
+            return null;
+        }
+        int[] next = new int[values.length - 1];
+        System.arraycopy(values, 0, next, 0, at);
+        System.arraycopy(values, at + 1, next, at, values.length - at - 1);
+        return next;
+    }
+
+    static int toMinutes(Instant instant) {
+        return (int) (instant.getEpochSecond() / 60);
+    }
+
+    @FunctionalInterface
+    public interface FollowVisitor {
+        void visit(long followingId, int followedAtMinute);
+    }
+
+    private record Adjacency(ConcurrentHashMap<Long, EdgeList> following, ConcurrentHashMap<Long, EdgeList> followers) {
+    }
+
+    private record Edit(long followerId, long followingId, int followedAtMinutes, boolean add) {
+    }
+
+    // A sorted base list plus small sorted deltas of added ids and removed base ids, so an edit copies
+    // only the deltas. Once they outgrow roughly the square root of the base they are folded in, which
+    // keeps a follow of an account with millions of followers far from a full copy. Follower lists
+    // carry no follow minutes (null minute arrays). Removed ids are always base ids; an added id may
+    // repeat a removed base id when an edge is re-added.
+    private static final class EdgeList {
+        private final long[] ids;
+        private final int[] minutes;
+        private final long[] addedIds;
+        private final int[] addedMinutes;
+        private final long[] removedIds;
+
+        EdgeList(long[] ids, int[] minutes, long[] addedIds, int[] addedMinutes, long[] removedIds) {
+            this.ids = ids;
+            this.minutes = minutes;
+            this.addedIds = addedIds;
+            this.addedMinutes = addedMinutes;
+            this.removedIds = removedIds;
+        }
+
+        private int minuteAt(int index) {
+            return minutes == null ? 0 : minutes[index];
+        }
+
+        int size() {
+            return ids.length - removedIds.length + addedIds.length;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(addedIds, id) >= 0
+                    || Arrays.binarySearch(ids, id) >= 0 && Arrays.binarySearch(removedIds, id) < 0;
+        }
+
+        EdgeList with(long id, int minute) {
+            if (contains(id)) {
+                return this;
+            }
+            int at = -Arrays.binarySearch(addedIds, id) - 1;
+            return new EdgeList(ids, minutes, insertAt(addedIds, at, id), insertAt(addedMinutes, at, minute),
+                    removedIds).compactIfLarge();
+        }
+
+        EdgeList without(long id) {
+            int added = Arrays.binarySearch(addedIds, id);
+            if (added >= 0) {
+                return new EdgeList(ids, minutes, removeAt(addedIds, added), removeAt(addedMinutes, added),
+                        removedIds);
+            }
+            int removed = Arrays.binarySearch(removedIds, id);
+            if (removed >= 0 || Arrays.binarySearch(ids, id) < 0) {
+                return this;
+            }
+            return new EdgeList(ids, minutes, addedIds, addedMinutes, insertAt(removedIds, -removed - 1, id))
+                    .compactIfLarge();
+        }
+
+        void forEach(FollowVisitor visitor) {
+            int base = 0;
+            int added = 0;
+            int removed = 0;
+            while (base < ids.length || added < addedIds.length) {
+                if (added == addedIds.length || base < ids.length && ids[base] < addedIds[added]) {
+                    if (removed < removedIds.length && removedIds[removed] == ids[base]) {
+                        removed++;
+                    } else {
+                        visitor.visit(ids[base], minuteAt(base));
+                    }
+                    base++;
+                } else {
+                    visitor.visit(addedIds[added], addedMinutes == null ? 0 : addedMinutes[added]);
+                    added++;
+                }
+            }
+        }
+
+        // Merges a sorted batch into a fresh base in one pass; ids already present keep their follow minute.
+        EdgeList withAll(EdgeList batch) {
+            int capacity = size() + batch.ids.length;
+            long[] mergedIds = new long[capacity];
+            int[] mergedMinutes = minutes == null ? null : new int[capacity];
+            int[] next = {0, 0};
+            FollowVisitor append = (id, minute) -> {
+                if (next[0] > 0 && mergedIds[next[0] - 1] == id) {
+                    return;
+                }
+                mergedIds[next[0]] = id;
+                if (mergedMinutes != null) {
+                    mergedMinutes[next[0]] = minute;
+                }
+                next[0]++;
+            };
+            forEach((id, minute) -> {
+                while (next[1] < batch.ids.length && batch.ids[next[1]] < id) {
+                    append.visit(batch.ids[next[1]], batch.minuteAt(next[1]));
+                    next[1]++;
+                }
+                append.visit(id, minute);
+            });
+            while (next[1] < batch.ids.length) {
+                append.visit(batch.ids[next[1]], batch.minuteAt(next[1]));
+                next[1]++;
+            }
+            return new EdgeList(Arrays.copyOf(mergedIds, next[0]),
+                    mergedMinutes == null ? null : Arrays.copyOf(mergedMinutes, next[0]),
+                    NONE, minutes == null ? null : NO_MINUTES, NONE);
+        }
+
+        long[] toIds() {
+            if (addedIds.length == 0 && removedIds.length == 0) {
+                return ids.clone();
+            }
+            long[] merged = new long[size()];
+            int[] next = {0};
+            forEach((id, minute) -> merged[next[0]++] = id);
+            return merged;
+        }
+
+        long estimatedBytes() {
+            int arrays = minutes == null ? 3 : 5;
+            long edgeBytes = minutes == null ? 8 : 12;
+            return LIST_HOLDER_BYTES + arrays * ARRAY_HEADER_BYTES
+                    + edgeBytes * (ids.length + addedIds.length) + 8L * removedIds.length;
+        }
+
+        private EdgeList compactIfLarge() {
+            int delta = addedIds.length + removedIds.length;
+            return delta <= Math.max(MIN_DELTA, (int) Math.sqrt(ids.length)) ? this : compact();
+        }
+
+        private EdgeList compact() {
+            int size = size();
+            long[] mergedIds = new long[size];
+            int[] mergedMinutes = minutes == null ? null : new int[size];
+            int[] next = {0};
+            forEach((id, minute) -> {
+                mergedIds[next[0]] = id;
+                if (mergedMinutes != null) {
+                    mergedMinutes[next[0]] = minute;
+                }
+                next[0]++;
+            });
+            return new EdgeList(mergedIds, mergedMinutes, NONE, minutes == null ? null : NO_MINUTES, NONE);
+        }
+    }
+
+    private static final class EdgeListBuilder {
+        private long[] ids = new long[4];
+        private int[] minutes = new int[4];
+        private int size;
+        private boolean sorted = true;
+
+        void add(long id, int minute) {
+            if (size > 0 && id < ids[size - 1]) {
+                sorted = false;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                minutes = Arrays.copyOf(minutes, size * 2);
+            }
+            ids[size] = id;
+            minutes[size] = minute;
+            size++;
+        }
+
+        EdgeList toEdgeList(boolean timed) {
+            long[] sortedIds;
+            int[] sortedMinutes;
+            if (sorted) {
+                sortedIds = Arrays.copyOf(ids, size);
+                sortedMinutes = Arrays.copyOf(minutes, size);
+            } else {
+                Integer[] order = new Integer[size];
+                for (int i = 0; i < size; i++) {
+                    order[i] = i;
+                }
+                Arrays.sort(order, (a, b) -> Long.compare(ids[a], ids[b]));
+                sortedIds = new long[size];
+                sortedMinutes = new int[size];
+                for (int i = 0; i < size; i++) {
+                    sortedIds[i] = ids[order[i]];
+                    sortedMinutes[i] = minutes[order[i]];
+                }
+            }
+            return timed
+                    ? new EdgeList(sortedIds, sortedMinutes, NONE, NO_MINUTES, NONE)
+                    : new EdgeList(sortedIds, null, NONE, null, NONE);
+        }
+    }
+}
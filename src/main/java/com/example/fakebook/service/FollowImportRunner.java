@@ -0,0 +1,102 @@
+package com.example.fakebook.service;
+
+import com.example.fakebook.dto.user.BulkFollowResponse;
+import com.example.fakebook.entity.FollowId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// Offline import: start with --follow.import.file=<csv of follower_id,following_id> and the
+// application imports the file, logs the achieved throughput and exits. The import runs on
+// ApplicationReadyEvent after the follow graph and the fan-out pull set are loaded, so backfills see
+// the real pull authors. FakebookApplication exits with this bean's exit code afterwards.
+@Component
+@ConditionalOnProperty(name = "follow.import.file")
+public class FollowImportRunner implements ExitCodeGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(FollowImportRunner.class);
+
+    private static final int READ_BLOCK = 100_000;
+
+    private final FollowImportService followImportService;
+    private final Path file;
+    private volatile int exitCode = 1;
+
+    public FollowImportRunner(FollowImportService followImportService,
+                              @Value("${follow.import.file}") Path file) {
+        this.followImportService = followImportService;
+        this.file = file;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void run() {
+        try {
+            importFile();
+            exitCode = 0;
+        } catch (IOException | RuntimeException ex) {
+            log.error("Follow import of {} failed", file, ex);
+        }
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    private void importFile() throws IOException {
+        long started = System.nanoTime();
+        long read = 0;
+        long followed = 0;
+        long malformed = 0;
+        List<FollowId> block = new ArrayList<>(READ_BLOCK);
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                FollowId pair = parse(line);
+                if (pair == null) {
+                    malformed++;
+                    continue;
+                }
+                block.add(pair);
+                read++;
+                if (block.size() == READ_BLOCK) {
+                    followed += followImportService.importPairs(block).getFollowed();
+                    block.clear();
+                }
+            }
+        }
+        if (!block.isEmpty()) {
+            followed += followImportService.importPairs(block).getFollowed();
+        }
+        long elapsedMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        log.info("Follow import of {} finished: {} pairs read, {} skipped lines, {} new follows in {} ms ({} pairs/s)",
+                file, read, malformed, followed, elapsedMillis, read * 1000 / elapsedMillis);
+    }
+
+    static FollowId parse(String line) {
+        String[] parts = line.split(",");
+        if (parts.length != 2) {
+            return null;
+        }
+        try {
+            return new FollowId(Long.parseLong(parts[0].trim()), Long.parseLong(parts[1].trim()));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
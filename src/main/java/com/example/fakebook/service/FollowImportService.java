@@ -0,0 +1,138 @@
+package com.example.fakebook.service;
+
+import com.example.fakebook.dto.user.BulkFollowResponse;
+import com.example.fakebook.entity.FollowId;
+import com.example.fakebook.entity.User;
+import com.example.fakebook.repository.FollowEdge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+@Service
+public class FollowImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(FollowImportService.class);
+
+    // Unknown user ids are skipped instead of failing the whole batch on the foreign key.
+    private static final String INSERT_SQL = """
+            INSERT INTO follows (follower_id, following_id, created_at)
+            SELECT ?, ?, CURRENT_TIMESTAMP
+            WHERE EXISTS (SELECT 1 FROM users WHERE id = ?) AND EXISTS (SELECT 1 FROM users WHERE id = ?)
+            ON CONFLICT DO NOTHING""";
+    private static final String COUNTS_SQL =
+            "UPDATE users SET following_count = following_count + ?, follower_count = follower_count + ? WHERE id = ?";
+    private static final Comparator<FollowId> PAIR_ORDER =
+            Comparator.comparing(FollowId::getFollowerId).thenComparing(FollowId::getFollowingId);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TimelineService timelineService;
+    private final FollowGraph followGraph;
+    private final SuggestionService suggestionService;
+    private final int batchSize;
+    private final int chunkSize;
+
+    public FollowImportService(JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               TimelineService timelineService,
+                               FollowGraph followGraph,
+                               SuggestionService suggestionService,
+                               @Value("${follow.import.batch-size:500}") int batchSize,
+                               @Value("${follow.import.chunk-size:10000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.timelineService = timelineService;
+        this.followGraph = followGraph;
+        this.suggestionService = suggestionService;
+        this.batchSize = batchSize;
+        this.chunkSize = chunkSize;
+    }
+
+    public BulkFollowResponse followAll(User follower, List<Long> userIds) {
+        return importPairs(userIds.stream().map(userId -> new FollowId(follower.getId(), userId)).toList());
+    }
+
+    // Each chunk commits on its own, so a large import neither holds one huge transaction nor
+    // loses completed chunks when a later one fails.
+    public BulkFollowResponse importPairs(Collection<FollowId> pairs) {
+        long started = System.nanoTime();
+        List<FollowId> accepted = pairs.stream()
+                .filter(pair -> pair.getFollowerId() != null && pair.getFollowingId() != null)
+                .filter(pair -> !pair.getFollowerId().equals(pair.getFollowingId()))
+                .distinct()
+                .sorted(PAIR_ORDER)
+                .toList();
+        int followed = 0;
+        for (int from = 0; from < accepted.size(); from += chunkSize) {
+            List<FollowId> chunk = accepted.subList(from, Math.min(from + chunkSize, accepted.size()));
+            Integer written = transactionTemplate.execute(status -> writeChunk(chunk));
+            followed += written == null ? 0 : written;
+        }
+        long elapsedNanos = Math.max(1, System.nanoTime() - started);
+        long pairsPerSecond = accepted.size() * 1_000_000_000L / elapsedNanos;
+        log.info("Imported {} new follows from {} pairs ({} after dedupe) in {} ms, {} pairs/s",
+                followed, pairs.size(), accepted.size(), elapsedNanos / 1_000_000, pairsPerSecond);
+        return new BulkFollowResponse(pairs.size(), accepted.size(), followed, elapsedNanos / 1_000_000, pairsPerSecond);
+    }
+
+    private int writeChunk(List<FollowId> chunk) {
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, chunk, batchSize, (statement, pair) -> {
+            statement.setLong(1, pair.getFollowerId());
+            statement.setLong(2, pair.getFollowingId());
+            statement.setLong(3, pair.getFollowerId());
+            statement.setLong(4, pair.getFollowingId());
+        });
+        List<FollowId> inserted = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count > 0) {
+                    inserted.add(chunk.get(index));
+                }
+                index++;
+            }
+        }
+        if (inserted.isEmpty()) {
+            return 0;
+        }
+        adjustCounts(inserted);
+        Map<Long, List<Long>> followingByFollower = inserted.stream()
+                .collect(Collectors.groupingBy(FollowId::getFollowerId, TreeMap::new,
+                        Collectors.mapping(FollowId::getFollowingId, Collectors.toList())));
+        followingByFollower.forEach(timelineService::backfill);
+        TransactionHooks.afterCommit(() -> {
+            Instant now = Instant.now();
+            followGraph.addEdges(inserted.stream()
+                    .map(pair -> new FollowEdge(pair.getFollowerId(), pair.getFollowingId(), now))
+                    .toList());
+            followingByFollower.keySet().forEach(suggestionService::markChanged);
+        });
+        return inserted.size();
+    }
+
+    private void adjustCounts(List<FollowId> inserted) {
+        // Sorted by user id so concurrent imports lock user rows in the same order.
+        Map<Long, long[]> deltas = new TreeMap<>();
+        for (FollowId pair : inserted) {
+            deltas.computeIfAbsent(pair.getFollowerId(), id -> new long[2])[0]++;
+            deltas.computeIfAbsent(pair.getFollowingId(), id -> new long[2])[1]++;
+        }
+        jdbcTemplate.batchUpdate(COUNTS_SQL, new ArrayList<>(deltas.entrySet()), batchSize, (statement, delta) -> {
+            statement.setLong(1, delta.getValue()[0]);
+            statement.setLong(2, delta.getValue()[1]);
+            statement.setLong(3, delta.getKey());
+        });
+    }
+}
@@ -1,18 +1,28 @@
 package com.example.fakebook.service;
 
+import com.example.fakebook.dto.common.Cursor;
+import com.example.fakebook.dto.common.CursorPage;
 import com.example.fakebook.dto.user.FollowResponse;
-import com.example.fakebook.entity.Follow;
+import com.example.fakebook.dto.user.RelationshipResponse;
 import com.example.fakebook.entity.FollowId;
 import com.example.fakebook.entity.User;
 import com.example.fakebook.exception.BadRequestException;
 import com.example.fakebook.exception.ResourceNotFoundException;
 import com.example.fakebook.mapper.UserMapper;
+import com.example.fakebook.repository.FollowEdgeView;
 import com.example.fakebook.repository.FollowRepository;
 import com.example.fakebook.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -20,12 +30,32 @@ public class FollowService {
 
     private final FollowRepository followRepository;
     private final UserRepository userRepository;
+    private final TimelineService timelineService;
+    private final FollowGraph followGraph;
+    private final SuggestionService suggestionService;
     private final UserMapper userMapper;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int maxRelationshipIds;
 
-    public FollowService(FollowRepository followRepository, UserRepository userRepository, UserMapper userMapper) {
+    public FollowService(FollowRepository followRepository,
+                         UserRepository userRepository,
+                         TimelineService timelineService,
+                         FollowGraph followGraph,
+                         SuggestionService suggestionService,
+                         UserMapper userMapper,
+                         @Value("${follow.page.default-size:50}") int defaultPageSize,
+                         @Value("${follow.page.max-size:200}") int maxPageSize,
+                         @Value("${follow.relationships.max-ids:200}") int maxRelationshipIds) {
         this.followRepository = followRepository;
         this.userRepository = userRepository;
+        this.timelineService = timelineService;
+        this.followGraph = followGraph;
+        this.suggestionService = suggestionService;
         this.userMapper = userMapper;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.maxRelationshipIds = maxRelationshipIds;
     }
 
     public void followUser(User follower, Long userId) {
@@ -34,36 +64,87 @@ public class FollowService {
         }
         User following = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        if (followRepository.existsByFollowerAndFollowing(follower, following)) {
+        // The graph is a per-instance copy that may lag behind other instances, so only the insert decides.
+        // The timestamp is chosen here so the graph orders the edge exactly as the follows table does.
+        Instant followedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        if (followRepository.insertIfAbsent(follower.getId(), following.getId(), followedAt) == 0) {
             throw new BadRequestException("Already following user");
         }
-        Follow follow = Follow.builder()
-                .id(new FollowId(follower.getId(), following.getId()))
-                .follower(follower)
-                .following(following)
-                .build();
-        followRepository.save(follow);
+        userRepository.adjustFollowCounts(follower.getId(), following.getId(), 1);
+        timelineService.backfill(follower, following);
+        TransactionHooks.afterCommit(() -> {
+            followGraph.addEdge(follower.getId(), following.getId(), followedAt);
+            suggestionService.markChanged(follower.getId());
+        });
     }
 
     public void unfollowUser(User follower, Long userId) {
         User following = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        followRepository.deleteByFollowerAndFollowing(follower, following);
+        if (followRepository.deleteByFollowerIdAndFollowingId(follower.getId(), following.getId()) > 0) {
+            userRepository.adjustFollowCounts(follower.getId(), following.getId(), -1);
+        }
+        timelineService.prune(follower, following);
+        TransactionHooks.afterCommit(() -> {
+            followGraph.removeEdge(follower.getId(), following.getId());
+            suggestionService.markChanged(follower.getId());
+        });
     }
 
-    public List<FollowResponse> getFollowers(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        return followRepository.findAllByFollowing(user).stream()
-                .map(follow -> userMapper.toFollowResponse(follow.getFollower()))
-                .toList();
+    public CursorPage<FollowResponse> getFollowers(Long userId, String cursor, Integer size) {
+        int limit = clampPageSize(size);
+        Cursor before = Cursor.decode(cursor);
+        PageRequest head = PageRequest.of(0, limit + 1);
+        List<FollowEdgeView> edges = before == null
+                ? followRepository.findFollowers(userId, head)
+                : followRepository.findFollowersBefore(userId, before.getCreatedAt(), before.getId(), head);
+        return toCursorPage(userId, edges, limit);
     }
 
-    public List<FollowResponse> getFollowing(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        return followRepository.findAllByFollower(user).stream()
-                .map(follow -> userMapper.toFollowResponse(follow.getFollowing()))
-                .toList();
+    public CursorPage<FollowResponse> getFollowing(Long userId, String cursor, Integer size) {
+        int limit = clampPageSize(size);
+        Cursor before = Cursor.decode(cursor);
+        PageRequest head = PageRequest.of(0, limit + 1);
+        List<FollowEdgeView> edges = before == null
+                ? followRepository.findFollowing(userId, head)
+                : followRepository.findFollowingBefore(userId, before.getCreatedAt(), before.getId(), head);
+        return toCursorPage(userId, edges, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public List<RelationshipResponse> getRelationships(User viewer, List<Long> userIds) {
+        Set<Long> ids = new LinkedHashSet<>(userIds);
+        if (ids.size() > maxRelationshipIds) {
+            throw new BadRequestException("At most " + maxRelationshipIds + " user ids can be looked up at once");
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> following = new HashSet<>();
+        Set<Long> followedBy = new HashSet<>();
+        for (FollowId edge : followRepository.findEdgesBetween(viewer.getId(), ids)) {
+            if (edge.getFollowerId().equals(viewer.getId())) {
+                following.add(edge.getFollowingId());
+            } else {
+                followedBy.add(edge.getFollowerId());
+            }
+        }
+        return ids.stream().map(id -> {
+            boolean follows = following.contains(id);
+            boolean followed = followedBy.contains(id);
+            return new RelationshipResponse(id, follows, followed, follows && followed);
+        }).toList();
+    }
+
+    private CursorPage<FollowResponse> toCursorPage(Long userId, List<FollowEdgeView> edges, int limit) {
+        if (edges.isEmpty() && !userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found");
+        }
+        return CursorPage.of(edges, limit, last -> new Cursor(last.getFollowedAt(), last.getId()),
+                content -> content.stream().map(userMapper::toFollowResponse).toList());
+    }
+
+    private int clampPageSize(Integer size) {
+        return size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
     }
 }
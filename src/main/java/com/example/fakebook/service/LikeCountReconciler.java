@@ -0,0 +1,104 @@
+package com.example.fakebook.service;
+
+import com.example.fakebook.repository.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+public class LikeCountReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(LikeCountReconciler.class);
+
+    // Post ids start at 1, so this never excludes a real post and keeps NOT IN (...) non-empty.
+    private static final Long NO_POST_ID = 0L;
+    private static final int MAX_SETTLE_ATTEMPTS = 3;
+
+    private final PostRepository postRepository;
+    private final LikeCounterBuffer likeCounterBuffer;
+    private final int chunkSize;
+
+    public LikeCountReconciler(PostRepository postRepository,
+                               LikeCounterBuffer likeCounterBuffer,
+                               @Value("${likes.reconcile.chunk-size:5000}") int chunkSize) {
+        this.postRepository = postRepository;
+        this.likeCounterBuffer = likeCounterBuffer;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(cron = "${likes.reconcile.cron:0 30 3 * * *}")
+    public synchronized long reconcile() {
+        Long maxId = postRepository.findMaxId();
+        if (maxId == null) {
+            return 0;
+        }
+        likeCounterBuffer.flush();
+        long repaired = 0;
+        Set<Long> suspects = new HashSet<>();
+        for (long fromId = 1; fromId <= maxId; fromId += chunkSize) {
+            long toId = fromId + chunkSize - 1;
+            Set<Long> touched = likeCounterBuffer.watch();
+            Set<Long> busy;
+            try {
+                // Busy posts already have like rows the counter does not reflect yet.
+                busy = likeCounterBuffer.busyPostIds();
+                repaired += postRepository.reconcileLikeCounts(fromId, toId, excluded(busy, fromId, toId));
+            } finally {
+                likeCounterBuffer.stopWatching();
+            }
+            // A like that started after the busy snapshot may have been counted by the update and will
+            // still flush its delta, so those posts are recounted once they are quiet.
+            for (Long postId : touched) {
+                if (postId >= fromId && postId <= toId && !busy.contains(postId)) {
+                    suspects.add(postId);
+                }
+            }
+        }
+        settle(suspects);
+        log.info("Like count reconciliation repaired {} posts up to id {}", repaired, maxId);
+        return repaired;
+    }
+
+    private void settle(Set<Long> suspects) {
+        for (int attempt = 0; attempt < MAX_SETTLE_ATTEMPTS && !suspects.isEmpty(); attempt++) {
+            likeCounterBuffer.flush();
+            Set<Long> touched = likeCounterBuffer.watch();
+            Set<Long> busy;
+            try {
+                busy = likeCounterBuffer.busyPostIds();
+                for (Long postId : suspects) {
+                    if (!busy.contains(postId)) {
+                        postRepository.reconcileLikeCounts(postId, postId, excluded(busy, postId, postId));
+                    }
+                }
+            } finally {
+                likeCounterBuffer.stopWatching();
+            }
+            suspects = suspects.stream()
+                    .filter(postId -> busy.contains(postId) || touched.contains(postId))
+                    .collect(Collectors.toSet());
+        }
+        if (!suspects.isEmpty()) {
+            log.warn("Like counts of {} posts changed during every recount and are left for the next run",
+                    suspects.size());
+        }
+    }
+
+    // Only busy ids inside the range are bound, so the NOT IN list never exceeds the chunk size however
+    // many posts are being liked elsewhere.
+    private Set<Long> excluded(Set<Long> busy, long fromId, long toId) {
+        Set<Long> excluded = new HashSet<>();
+        for (Long postId : busy) {
+            if (postId >= fromId && postId <= toId) {
+                excluded.add(postId);
+            }
+        }
+        return excluded.isEmpty() ? Set.of(NO_POST_ID) : excluded;
+    }
+}
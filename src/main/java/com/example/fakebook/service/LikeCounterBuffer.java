@@ -0,0 +1,125 @@
+package com.example.fakebook.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class LikeCounterBuffer {
+
+    private static final String FLUSH_SQL = "UPDATE posts SET like_count = like_count + ? WHERE id = ?";
+
+    private final ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Integer> inFlight = new ConcurrentHashMap<>();
+    private volatile Set<Long> watched;
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public LikeCounterBuffer(JdbcTemplate jdbcTemplate,
+                             @Value("${likes.buffer.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    public void add(Long postId, long delta) {
+        LongAdder cell = pending.computeIfAbsent(postId, id -> new LongAdder());
+        cell.add(delta);
+        if (pending.get(postId) != cell) {
+            // The flusher retired this cell while we were adding; move whatever it did not collect.
+            long orphaned = cell.sumThenReset();
+            if (orphaned != 0) {
+                add(postId, orphaned);
+            }
+        }
+    }
+
+    // Called before a like or unlike statement runs. The post stays busy until the surrounding transaction
+    // completes, which covers the gap between the like row becoming visible and its after-commit delta.
+    public void begin(Long postId) {
+        inFlight.merge(postId, 1, Integer::sum);
+        Set<Long> watching = watched;
+        if (watching != null) {
+            watching.add(postId);
+        }
+        TransactionHooks.afterCompletion(() ->
+                inFlight.computeIfPresent(postId, (id, count) -> count == 1 ? null : count - 1));
+    }
+
+    // Records every post that begins a like statement from now until stopWatching(); one watcher at a time.
+    public Set<Long> watch() {
+        Set<Long> touched = ConcurrentHashMap.newKeySet();
+        watched = touched;
+        return touched;
+    }
+
+    public void stopWatching() {
+        watched = null;
+    }
+
+    public long pendingDelta(Long postId) {
+        LongAdder cell = pending.get(postId);
+        return cell == null ? 0 : cell.sum();
+    }
+
+    public Set<Long> pendingPostIds() {
+        Set<Long> postIds = new HashSet<>();
+        pending.forEach((postId, cell) -> {
+            if (cell.sum() != 0) {
+                postIds.add(postId);
+            }
+        });
+        return postIds;
+    }
+
+    // Posts whose like rows may not be reflected in like_count yet: unflushed deltas or open like transactions.
+    public Set<Long> busyPostIds() {
+        Set<Long> postIds = pendingPostIds();
+        postIds.addAll(inFlight.keySet());
+        return postIds;
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${likes.buffer.flush-interval-ms:1000}")
+    public synchronized int flush() {
+        Map<Long, Long> deltas = drain();
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        List<Map.Entry<Long, Long>> updates = new ArrayList<>(deltas.entrySet());
+        updates.sort(Map.Entry.comparingByKey());
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, updates, batchSize, (statement, update) -> {
+                statement.setLong(1, update.getValue());
+                statement.setLong(2, update.getKey());
+            });
+        } catch (RuntimeException ex) {
+            deltas.forEach(this::add);
+            throw ex;
+        }
+        return updates.size();
+    }
+
+    private Map<Long, Long> drain() {
+        Map<Long, Long> deltas = new HashMap<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            Long postId = entry.getKey();
+            LongAdder cell = entry.getValue();
+            long delta = cell.sumThenReset();
+            if (delta == 0) {
+                // Idle since the last flush: retire the cell, then collect anything that raced in.
+                pending.remove(postId, cell);
+                delta = cell.sumThenReset();
+            }
+            if (delta != 0) {
+                deltas.merge(postId, delta, Long::sum);
+            }
+        }
+        return deltas;
+    }
+}
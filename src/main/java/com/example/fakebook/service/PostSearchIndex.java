@@ -0,0 +1,378 @@
+package com.example.fakebook.service;
+
+import com.example.fakebook.repository.PostRepository;
+import com.example.fakebook.repository.PostText;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory inverted index over post content, ranked with BM25. Each term keeps a posting list of
+// (document delta, term frequency, post length) triples encoded as varints in one growable byte array,
+// so appending a newly indexed post costs a few bytes. Deleted posts are cleared from a liveness bitmap
+// and their postings are dropped at the next rebuild.
+@Component
+public class PostSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PostSearchIndex.class);
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MIN_TOKEN_LENGTH = 2;
+    private static final int MAX_TOKEN_LENGTH = 40;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "into", "is", "it", "its",
+            "no", "not", "of", "on", "or", "so", "such", "that", "the", "their", "then", "there", "these",
+            "they", "this", "to", "was", "will", "with");
+
+    private final PostRepository postRepository;
+    private final int chunkSize;
+    private final int maxResults;
+    private final Timer queryTimer;
+
+    private volatile Index index = new Index();
+    private List<Change> journal;
+
+    public PostSearchIndex(PostRepository postRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${posts.search.rebuild-chunk-size:1000}") int chunkSize,
+                           @Value("${posts.search.max-results:1000}") int maxResults) {
+        this.postRepository = postRepository;
+        this.chunkSize = chunkSize;
+        this.maxResults = maxResults;
+        this.queryTimer = Timer.builder("posts.search.query.duration")
+                .description("Time spent scoring a post search against the inverted index")
+                .register(meterRegistry);
+        Gauge.builder("posts.search.index.documents", this, search -> search.index.documentCount())
+                .description("Live posts held in the post search index")
+                .register(meterRegistry);
+        Gauge.builder("posts.search.index.terms", this, search -> search.index.termCount())
+                .description("Distinct terms in the post search index")
+                .register(meterRegistry);
+        Gauge.builder("posts.search.index.postings", this, search -> search.index.postingBytes())
+                .description("Encoded size of all posting lists")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public record Hits(List<Long> postIds, long total) {
+    }
+
+    // Posts matching any query term, best BM25 score first and newer posts first among equal scores.
+    // Only the first posts.search.max-results matches can be paged through.
+    public Hits search(String query, long offset, int limit) {
+        List<String> terms = tokenize(query).stream().distinct().toList();
+        if (terms.isEmpty() || offset >= maxResults) {
+            return new Hits(List.of(), 0);
+        }
+        int window = (int) Math.min(maxResults, offset + limit);
+        Hits hits = queryTimer.record(() -> index.search(terms, (int) offset, window));
+        // Matches past max-results cannot be paged to, so they are not counted either.
+        return new Hits(hits.postIds(), Math.min(hits.total(), maxResults));
+    }
+
+    public synchronized void add(Long postId, String content) {
+        index.add(postId, content);
+        if (journal != null) {
+            journal.add(new Change(postId, content, true));
+        }
+    }
+
+    public synchronized void remove(Long postId, String content) {
+        index.remove(postId, content);
+        if (journal != null) {
+            journal.add(new Change(postId, content, false));
+        }
+    }
+
+    // Reads posts in id order, one chunk per query, so neither the posts nor a long-running transaction
+    // are held while the new index is built. Changes made during the scan are journaled and replayed;
+    // adding an already indexed post is a no-op, so replaying one the scan has seen is harmless.
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${posts.search.rebuild-cron:0 15 4 * * *}")
+    public void rebuild() {
+        synchronized (this) {
+            journal = new ArrayList<>();
+        }
+        Index loaded = new Index();
+        try {
+            long afterId = 0;
+            List<PostText> chunk;
+            do {
+                chunk = postRepository.findTextsAfter(afterId, PageRequest.of(0, chunkSize));
+                for (PostText post : chunk) {
+                    loaded.add(post.getId(), post.getContent());
+                }
+                if (!chunk.isEmpty()) {
+                    afterId = chunk.get(chunk.size() - 1).getId();
+                }
+            } while (chunk.size() == chunkSize);
+        } catch (RuntimeException ex) {
+            synchronized (this) {
+                journal = null;
+            }
+            throw ex;
+        }
+        synchronized (this) {
+            for (Change change : journal) {
+                if (change.added()) {
+                    loaded.add(change.postId(), change.content());
+                } else {
+                    loaded.remove(change.postId(), change.content());
+                }
+            }
+            journal = null;
+            index = loaded;
+        }
+        log.info("Rebuilt post search index with {} posts, {} terms, {} bytes of postings",
+                loaded.documentCount(), loaded.termCount(), loaded.postingBytes());
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                int length = i - start;
+                if (length >= MIN_TOKEN_LENGTH && length <= MAX_TOKEN_LENGTH) {
+                    String token = lower.substring(start, i);
+                    if (!STOP_WORDS.contains(token)) {
+                        tokens.add(token);
+                    }
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private record Change(Long postId, String content, boolean added) {
+    }
+
+    // Postings and the liveness bitmap are keyed by a dense document number assigned when a post is added,
+    // so memory follows the number of indexed posts rather than the largest post id, and every posting list
+    // only ever grows at its end. Re-adding a removed post gives it a new document.
+    private static final class Index {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<String, Postings> postings = new HashMap<>();
+        private final Map<Long, Integer> documentByPostId = new HashMap<>();
+        private long[] postIdByDocument = new long[16];
+        private int nextDocument;
+        private final BitSet live = new BitSet();
+        private int documentCount;
+        private long totalLength;
+        private long postingBytes;
+
+        void add(long postId, String content) {
+            List<String> tokens = tokenize(content);
+            Map<String, Integer> frequencies = new LinkedHashMap<>();
+            tokens.forEach(token -> frequencies.merge(token, 1, Integer::sum));
+            lock.writeLock().lock();
+            try {
+                Integer existing = documentByPostId.get(postId);
+                if (existing != null && live.get(existing)) {
+                    return;
+                }
+                int document = nextDocument++;
+                if (document == postIdByDocument.length) {
+                    postIdByDocument = Arrays.copyOf(postIdByDocument, document * 2);
+                }
+                postIdByDocument[document] = postId;
+                documentByPostId.put(postId, document);
+                live.set(document);
+                documentCount++;
+                totalLength += tokens.size();
+                frequencies.forEach((term, frequency) -> {
+                    Postings list = postings.computeIfAbsent(term, key -> new Postings());
+                    int before = list.length;
+                    list.append(document, frequency, tokens.size());
+                    postingBytes += list.length - before;
+                });
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(long postId, String content) {
+            int length = tokenize(content).size();
+            lock.writeLock().lock();
+            try {
+                Integer document = documentByPostId.get(postId);
+                if (document == null || !live.get(document)) {
+                    return;
+                }
+                live.clear(document);
+                documentCount--;
+                totalLength -= length;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        Hits search(List<String> terms, int offset, int window) {
+            Map<Long, Double> scores = new HashMap<>();
+            lock.readLock().lock();
+            try {
+                if (documentCount == 0) {
+                    return new Hits(List.of(), 0);
+                }
+                double averageLength = (double) totalLength / documentCount;
+                for (String term : terms) {
+                    Postings list = postings.get(term);
+                    if (list == null) {
+                        continue;
+                    }
+                    // Document frequency still counts deleted posts until the next rebuild.
+                    double idf = Math.log(1 + (documentCount - list.documents + 0.5) / (list.documents + 0.5));
+                    list.forEach((document, frequency, length) -> {
+                        if (live.get(document)) {
+                            double saturation = frequency * (K1 + 1)
+                                    / (frequency + K1 * (1 - B + B * length / averageLength));
+                            scores.merge(postIdByDocument[document], idf * saturation, Double::sum);
+                        }
+                    });
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            Comparator<Map.Entry<Long, Double>> ranking = Map.Entry.<Long, Double>comparingByValue()
+                    .thenComparing(Map.Entry.comparingByKey());
+            PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(window + 1, ranking);
+            for (Map.Entry<Long, Double> score : scores.entrySet()) {
+                top.add(score);
+                if (top.size() > window) {
+                    top.poll();
+                }
+            }
+            List<Long> ranked = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                ranked.add(top.poll().getKey());
+            }
+            List<Long> page = new ArrayList<>();
+            for (int i = ranked.size() - 1 - offset; i >= 0; i--) {
+                page.add(ranked.get(i));
+            }
+            return new Hits(page, scores.size());
+        }
+
+        int documentCount() {
+            lock.readLock().lock();
+            try {
+                return documentCount;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        int termCount() {
+            lock.readLock().lock();
+            try {
+                return postings.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        long postingBytes() {
+            lock.readLock().lock();
+            try {
+                return postingBytes;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface PostingVisitor {
+        void visit(int document, int frequency, int length);
+    }
+
+    // Not thread-safe on its own; guarded by the owning Index's lock. Document numbers are handed out in
+    // increasing order, so postings are always appended and each delta is usually a single byte.
+    private static final class Postings {
+
+        private byte[] data = new byte[16];
+        private int length;
+        private int documents;
+        private int lastDocument = -1;
+
+        void append(int document, int frequency, int documentLength) {
+            if (data.length - length < 15) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + 15));
+            }
+            writeVarInt(document - lastDocument);
+            writeVarInt(frequency);
+            writeVarInt(documentLength);
+            lastDocument = document;
+            documents++;
+        }
+
+        void forEach(PostingVisitor visitor) {
+            int document = -1;
+            int position = 0;
+            while (position < length) {
+                int delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data[position++];
+                    delta |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                int frequency = 0;
+                shift = 0;
+                do {
+                    b = data[position++];
+                    frequency |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                int documentLength = 0;
+                shift = 0;
+                do {
+                    b = data[position++];
+                    documentLength |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                document += delta;
+                visitor.visit(document, frequency, documentLength);
+            }
+        }
+
+        private void writeVarInt(int value) {
+            while ((value & ~0x7F) != 0) {
+                data[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[length++] = (byte) value;
+        }
+    }
+}
@@ -1,21 +1,35 @@
 package com.example.fakebook.service;
 
+import com.example.fakebook.dto.comment.CommentResponse;
+import com.example.fakebook.dto.common.Cursor;
+import com.example.fakebook.dto.common.CursorPage;
+import com.example.fakebook.dto.post.LikeResponse;
 import com.example.fakebook.dto.post.PostRequest;
 import com.example.fakebook.dto.post.PostResponse;
 import com.example.fakebook.entity.*;
 import com.example.fakebook.exception.BadRequestException;
 import com.example.fakebook.exception.ResourceNotFoundException;
+import com.example.fakebook.mapper.CommentMapper;
 import com.example.fakebook.mapper.PostMapper;
-import com.example.fakebook.repository.FollowRepository;
+import com.example.fakebook.repository.CommentRepository;
+import com.example.fakebook.repository.PostCommentCount;
 import com.example.fakebook.repository.PostLikeRepository;
 import com.example.fakebook.repository.PostRepository;
 import com.example.fakebook.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -24,53 +38,88 @@ public class PostService {
     private final PostRepository postRepository;
     private final UserRepository userRepository;
     private final PostLikeRepository postLikeRepository;
-    private final FollowRepository followRepository;
+    private final TimelineService timelineService;
+    private final LikeCounterBuffer likeCounterBuffer;
+    private final CommentRepository commentRepository;
     private final PostMapper postMapper;
+    private final CommentMapper commentMapper;
+    private final PostSearchIndex postSearchIndex;
+    private final int commentPreviewSize;
+    private final int maxPageSize;
 
     public PostService(PostRepository postRepository,
                        UserRepository userRepository,
                        PostLikeRepository postLikeRepository,
-                       FollowRepository followRepository,
-                       PostMapper postMapper) {
+                       TimelineService timelineService,
+                       LikeCounterBuffer likeCounterBuffer,
+                       CommentRepository commentRepository,
+                       PostMapper postMapper,
+                       CommentMapper commentMapper,
+                       PostSearchIndex postSearchIndex,
+                       @Value("${comments.preview.size:3}") int commentPreviewSize,
+                       @Value("${posts.page.max-size:100}") int maxPageSize) {
         this.postRepository = postRepository;
         this.userRepository = userRepository;
         this.postLikeRepository = postLikeRepository;
-        this.followRepository = followRepository;
+        this.timelineService = timelineService;
+        this.likeCounterBuffer = likeCounterBuffer;
+        this.commentRepository = commentRepository;
         this.postMapper = postMapper;
+        this.commentMapper = commentMapper;
+        this.postSearchIndex = postSearchIndex;
+        this.commentPreviewSize = commentPreviewSize;
+        this.maxPageSize = maxPageSize;
     }
 
     public PostResponse createPost(User user, PostRequest request) {
         Post post = postMapper.toEntity(request);
-        post.setUser(user);
+        post.setUser(userRepository.getReferenceById(user.getId()));
         Post saved = postRepository.save(post);
-        return enrichPost(saved);
+        userRepository.adjustPostCount(user.getId(), 1);
+        timelineService.fanOut(saved);
+        TransactionHooks.afterCommit(() -> postSearchIndex.add(saved.getId(), saved.getContent()));
+        // A post that was just created has no likes or comments yet, so skip the enrichment queries.
+        PostResponse response = postMapper.toResponse(saved);
+        response.setLikeCount(0);
+        response.setLikedByMe(false);
+        response.setCommentCount(0);
+        response.setLatestComments(List.of());
+        return response;
     }
 
-    public Page<PostResponse> getUserPosts(Long userId, Pageable pageable) {
+    public Page<PostResponse> getUserPosts(User viewer, Long userId, Pageable pageable) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        return postRepository.findAllByUser(user, pageable)
-                .map(this::enrichPost);
+        return enrichPage(postRepository.findAllByUser(user, pageable), viewer);
     }
 
     public Page<PostResponse> getNewsfeed(User user, Pageable pageable) {
-        List<User> following = followRepository.findAllByFollower(user).stream()
-                .map(Follow::getFollowing)
-                .toList();
-        if (following.isEmpty()) {
-            following = List.of(user);
-        } else if (!following.contains(user)) {
-            following = new java.util.ArrayList<>(following);
-            following.add(user);
+        return enrichPage(timelineService.getTimeline(user, pageable), user);
+    }
+
+    public CursorPage<PostResponse> getUserPosts(User viewer, Long userId, String cursor, int size) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found");
         }
-        return postRepository.findAllByUserIn(following, pageable)
-                .map(this::enrichPost);
+        int limit = clampPageSize(size);
+        Cursor after = Cursor.decode(cursor);
+        PageRequest head = PageRequest.of(0, limit + 1);
+        List<Post> posts = after == null
+                ? postRepository.findRecentByUserIds(List.of(userId), head)
+                : postRepository.findByUserIdsBefore(List.of(userId), after.getCreatedAt(), after.getId(), head);
+        return toCursorPage(posts, limit, viewer);
     }
 
-    public PostResponse getPost(Long postId) {
-        Post post = postRepository.findById(postId)
+    public CursorPage<PostResponse> getNewsfeed(User user, String cursor, int size) {
+        int limit = clampPageSize(size);
+        List<Post> posts = timelineService.getTimeline(user, Cursor.decode(cursor), limit + 1);
+        return toCursorPage(posts, limit, user);
+    }
+
+    public PostResponse getPost(User viewer, Long postId) {
+        Post post = postRepository.findWithUserById(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found"));
-        return enrichPost(post);
+        return enrichPosts(List.of(post), viewer).get(0);
     }
 
     public void deletePost(User user, Long postId) {
@@ -79,32 +128,87 @@ public class PostService {
         if (!post.getUser().getId().equals(user.getId())) {
             throw new BadRequestException("Cannot delete another user's post");
         }
+        timelineService.remove(post);
         postRepository.delete(post);
+        userRepository.adjustPostCount(user.getId(), -1);
+        TransactionHooks.afterCommit(() -> postSearchIndex.remove(post.getId(), post.getContent()));
     }
 
-    public void likePost(User user, Long postId) {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new ResourceNotFoundException("Post not found"));
-        if (postLikeRepository.existsByPostAndUser(post, user)) {
-            throw new BadRequestException("Post already liked");
+    @Transactional(readOnly = true)
+    public Page<PostResponse> searchPosts(User viewer, String query, Pageable pageable) {
+        PostSearchIndex.Hits hits = postSearchIndex.search(query, pageable.getOffset(), pageable.getPageSize());
+        if (hits.postIds().isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, hits.total());
         }
-        PostLike like = PostLike.builder()
-                .id(new PostLikeId(user.getId(), post.getId()))
-                .post(post)
-                .user(user)
-                .build();
-        postLikeRepository.save(like);
+        Map<Long, Post> byId = postRepository.findWithUserByIdIn(hits.postIds()).stream()
+                .collect(Collectors.toMap(Post::getId, post -> post));
+        List<Post> ranked = hits.postIds().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(enrichPosts(ranked, viewer), pageable, hits.total());
     }
 
-    public void unlikePost(User user, Long postId) {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new ResourceNotFoundException("Post not found"));
-        postLikeRepository.deleteByPostAndUser(post, user);
+    public LikeResponse likePost(User user, Long postId) {
+        likeCounterBuffer.begin(postId);
+        // The insert skips missing posts, so no rows means either an existing like or no such post.
+        // Any constraint violation it still raises is a different problem and propagates.
+        boolean changed = postLikeRepository.insertIfAbsent(user.getId(), postId) > 0;
+        if (!changed && !postRepository.existsById(postId)) {
+            throw new ResourceNotFoundException("Post not found");
+        }
+        if (changed) {
+            TransactionHooks.afterCommit(() -> likeCounterBuffer.add(postId, 1));
+        }
+        return new LikeResponse(postId, true, changed);
     }
 
-    private PostResponse enrichPost(Post post) {
-        PostResponse response = postMapper.toResponse(post);
-        response.setLikeCount(postLikeRepository.countByPost(post));
-        return response;
+    public LikeResponse unlikePost(User user, Long postId) {
+        likeCounterBuffer.begin(postId);
+        boolean changed = postLikeRepository.deleteByUserIdAndPostId(user.getId(), postId) > 0;
+        if (changed) {
+            TransactionHooks.afterCommit(() -> likeCounterBuffer.add(postId, -1));
+        }
+        return new LikeResponse(postId, false, changed);
+    }
+
+    private CursorPage<PostResponse> toCursorPage(List<Post> posts, int limit, User viewer) {
+        return CursorPage.of(posts, limit, last -> new Cursor(last.getCreatedAt(), last.getId()),
+                content -> enrichPosts(content, viewer));
+    }
+
+    private int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, maxPageSize));
+    }
+
+    private Page<PostResponse> enrichPage(Page<Post> page, User viewer) {
+        return new PageImpl<>(enrichPosts(page.getContent(), viewer), page.getPageable(), page.getTotalElements());
+    }
+
+    private List<PostResponse> enrichPosts(List<Post> posts, User viewer) {
+        if (posts.isEmpty()) {
+            return List.of();
+        }
+        List<Long> postIds = posts.stream().map(Post::getId).toList();
+        Set<Long> likedPostIds = viewer == null
+                ? Set.of()
+                : new HashSet<>(postLikeRepository.findLikedPostIds(viewer.getId(), postIds));
+        Map<Long, Long> commentCounts = commentRepository.countByPostIds(postIds).stream()
+                .collect(Collectors.toMap(PostCommentCount::getPostId, PostCommentCount::getCommentCount));
+        Map<Long, List<CommentResponse>> latestComments = commentPreviewSize <= 0
+                ? Map.of()
+                : commentRepository.findLatestByPostIds(postIds, commentPreviewSize).stream()
+                        .collect(Collectors.groupingBy(comment -> comment.getPost().getId(),
+                                Collectors.mapping(commentMapper::toResponse, Collectors.toList())));
+        return posts.stream()
+                .map(post -> {
+                    PostResponse response = postMapper.toResponse(post);
+                    response.setLikeCount(post.getLikeCount() + likeCounterBuffer.pendingDelta(post.getId()));
+                    response.setLikedByMe(likedPostIds.contains(post.getId()));
+                    response.setCommentCount(commentCounts.getOrDefault(post.getId(), 0L));
+                    response.setLatestComments(latestComments.getOrDefault(post.getId(), List.of()));
+                    return response;
+                })
+                .toList();
     }
 }
@@ -0,0 +1,207 @@
+package com.example.fakebook.service;
+
+import com.example.fakebook.dto.user.SuggestionResponse;
+import com.example.fakebook.entity.User;
+import com.example.fakebook.mapper.UserMapper;
+import com.example.fakebook.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class SuggestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(SuggestionService.class);
+
+    private static final int USERS_PER_TASK = 64;
+    private static final double RECENCY_DAYS = 7.0;
+
+    private final FollowGraph followGraph;
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final int perUser;
+    private final ForkJoinPool pool;
+    private final Map<Long, Suggestions> suggestions = new ConcurrentHashMap<>();
+    private final Set<Long> changedUserIds = ConcurrentHashMap.newKeySet();
+
+    public SuggestionService(FollowGraph followGraph,
+                             UserRepository userRepository,
+                             UserMapper userMapper,
+                             @Value("${suggestions.per-user:20}") int perUser,
+                             @Value("${suggestions.parallelism:0}") int parallelism) {
+        this.followGraph = followGraph;
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.perUser = perUser;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @Transactional(readOnly = true)
+    public List<SuggestionResponse> getSuggestions(User user) {
+        Suggestions stored = suggestions.get(user.getId());
+        if (stored == null) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>();
+        for (long id : stored.ids) {
+            // Drop accounts followed since the last refresh.
+            if (!followGraph.isFollowing(user.getId(), id)) {
+                ids.add(id);
+            }
+        }
+        Map<Long, User> users = userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        List<SuggestionResponse> responses = new ArrayList<>();
+        for (int i = 0; i < stored.ids.length; i++) {
+            User candidate = users.get(stored.ids[i]);
+            if (candidate != null) {
+                SuggestionResponse response = userMapper.toSuggestionResponse(candidate);
+                response.setMutualCount(stored.mutualCounts[i]);
+                responses.add(response);
+            }
+        }
+        return responses;
+    }
+
+    public void markChanged(long userId) {
+        changedUserIds.add(userId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleInitialBuild() {
+        pool.execute(this::rebuildAll);
+    }
+
+    @Scheduled(cron = "${suggestions.rebuild-cron:0 0 4 * * *}")
+    public int rebuildAll() {
+        Set<Long> userIds = followGraph.getUsersFollowingAnyone();
+        suggestions.keySet().retainAll(userIds);
+        int computed = recompute(userIds.stream().mapToLong(Long::longValue).toArray());
+        log.info("Rebuilt follow suggestions for {} users", computed);
+        return computed;
+    }
+
+    @Scheduled(fixedDelayString = "${suggestions.refresh-interval-ms:60000}",
+            initialDelayString = "${suggestions.refresh-interval-ms:60000}")
+    public int refreshChanged() {
+        List<Long> userIds = new ArrayList<>();
+        for (Iterator<Long> it = changedUserIds.iterator(); it.hasNext(); ) {
+            // Removed before recomputing, so a change marked meanwhile is picked up next round.
+            userIds.add(it.next());
+            it.remove();
+        }
+        return recompute(userIds.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private int recompute(long[] userIds) {
+        if (userIds.length > 0) {
+            pool.invoke(new ScoreTask(userIds, 0, userIds.length, FollowGraph.toMinutes(Instant.now())));
+        }
+        return userIds.length;
+    }
+
+    private void score(long userId, int nowMinutes) {
+        long[] following = followGraph.getFollowingIds(userId);
+        if (following.length == 0) {
+            suggestions.remove(userId);
+            return;
+        }
+        Map<Long, Candidate> candidates = new HashMap<>();
+        for (long via : following) {
+            followGraph.forEachFollowing(via, (candidateId, followedAtMinute) -> {
+                if (candidateId == userId || Arrays.binarySearch(following, candidateId) >= 0) {
+                    return;
+                }
+                Candidate candidate = candidates.computeIfAbsent(candidateId, Candidate::new);
+                candidate.mutualCount++;
+                candidate.latestMinute = Math.max(candidate.latestMinute, followedAtMinute);
+            });
+        }
+        PriorityQueue<Candidate> top = new PriorityQueue<>(Comparator.comparingDouble(c -> c.score));
+        for (Candidate candidate : candidates.values()) {
+            double ageDays = Math.max(0, nowMinutes - candidate.latestMinute) / (60.0 * 24);
+            // Mutual follows dominate; a recent follow by one of them adds up to one more point.
+            candidate.score = candidate.mutualCount + 1.0 / (1.0 + ageDays / RECENCY_DAYS);
+            top.add(candidate);
+            if (top.size() > perUser) {
+                top.poll();
+            }
+        }
+        int size = top.size();
+        long[] ids = new long[size];
+        int[] mutualCounts = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            Candidate candidate = top.poll();
+            ids[i] = candidate.id;
+            mutualCounts[i] = candidate.mutualCount;
+        }
+        suggestions.put(userId, new Suggestions(ids, mutualCounts));
+    }
+
+    private final class ScoreTask extends RecursiveAction {
+        private final long[] userIds;
+        private final int from;
+        private final int to;
+        private final int nowMinutes;
+
+        ScoreTask(long[] userIds, int from, int to, int nowMinutes) {
+            this.userIds = userIds;
+            this.from = from;
+            this.to = to;
+            this.nowMinutes = nowMinutes;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= USERS_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    score(userIds[i], nowMinutes);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ScoreTask(userIds, from, middle, nowMinutes), new ScoreTask(userIds, middle, to, nowMinutes));
+        }
+    }
+
+    private static final class Candidate {
+        private final long id;
+        private int mutualCount;
+        private int latestMinute = Integer.MIN_VALUE;
+        private double score;
+
+        Candidate(long id) {
+            this.id = id;
+        }
+    }
+
+    private record Suggestions(long[] ids, int[] mutualCounts) {
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.fakebook.service;
+
+import com.example.fakebook.dto.common.Cursor;
+import com.example.fakebook.entity.Post;
+import com.example.fakebook.entity.User;
+import com.example.fakebook.repository.PostRepository;
+import com.example.fakebook.repository.TimelineEntryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@Transactional
+public class TimelineService {
+
+    private final TimelineEntryRepository timelineEntryRepository;
+    private final PostRepository postRepository;
+    private final FollowGraph followGraph;
+    private final FanoutPolicy fanoutPolicy;
+    private final int capacity;
+    private final Timer fanOutTimer;
+    private final Timer pushReadTimer;
+    private final Timer pullReadTimer;
+    private final Timer mergeTimer;
+    private final Counter skippedFanOuts;
+
+    public TimelineService(TimelineEntryRepository timelineEntryRepository,
+                           PostRepository postRepository,
+                           FollowGraph followGraph,
+                           FanoutPolicy fanoutPolicy,
+                           MeterRegistry meterRegistry,
+                           @Value("${feed.timeline.capacity:800}") int capacity) {
+        this.timelineEntryRepository = timelineEntryRepository;
+        this.postRepository = postRepository;
+        this.followGraph = followGraph;
+        this.fanoutPolicy = fanoutPolicy;
+        this.capacity = capacity;
+        this.fanOutTimer = Timer.builder("feed.fanout.duration")
+                .description("Time spent pushing a new post into follower timelines")
+                .register(meterRegistry);
+        this.pushReadTimer = Timer.builder("feed.read.duration")
+                .description("Time spent reading one source of a home feed")
+                .tag("path", "push")
+                .register(meterRegistry);
+        this.pullReadTimer = Timer.builder("feed.read.duration")
+                .description("Time spent reading one source of a home feed")
+                .tag("path", "pull")
+                .register(meterRegistry);
+        this.mergeTimer = Timer.builder("feed.read.duration")
+                .description("Time spent reading one source of a home feed")
+                .tag("path", "merge")
+                .register(meterRegistry);
+        this.skippedFanOuts = Counter.builder("feed.fanout.skipped")
+                .description("Posts left to be pulled at read time because the author has too many followers")
+                .register(meterRegistry);
+    }
+
+    public void fanOut(Post post) {
+        Long authorId = post.getUser().getId();
+        timelineEntryRepository.insertEntry(authorId, post.getId(), authorId, post.getCreatedAt());
+        if (!fanoutPolicy.shouldFanOut(authorId)) {
+            skippedFanOuts.increment();
+            return;
+        }
+        fanOutTimer.record(() -> timelineEntryRepository.fanOutToFollowers(post.getId(), authorId, post.getCreatedAt()));
+    }
+
+    public void remove(Post post) {
+        timelineEntryRepository.deleteByPostId(post.getId());
+    }
+
+    public void backfill(User follower, User following) {
+        if (fanoutPolicy.shouldFanOut(following.getId())) {
+            timelineEntryRepository.backfillFromAuthor(follower.getId(), following.getId(), capacity);
+        }
+    }
+
+    public void backfill(Long followerId, Collection<Long> followingIds) {
+        List<Long> pushAuthorIds = followingIds.stream().filter(fanoutPolicy::shouldFanOut).toList();
+        if (!pushAuthorIds.isEmpty()) {
+            timelineEntryRepository.backfillFromAuthors(followerId, pushAuthorIds, capacity);
+        }
+    }
+
+    public void prune(User follower, User following) {
+        timelineEntryRepository.deleteByOwnerIdAndAuthorId(follower.getId(), following.getId());
+    }
+
+    @Transactional(readOnly = true)
+    public Page<Post> getTimeline(User owner, Pageable pageable) {
+        List<Long> pullAuthorIds = findPullAuthorsFollowedBy(owner);
+        if (pullAuthorIds.isEmpty()) {
+            return pushReadTimer.record(() -> timelineEntryRepository.findPostsByOwnerId(owner.getId(), pageable));
+        }
+        // Both sources are read from their newest post, so offset paging is limited to the first
+        // feed.timeline.capacity posts, as deep as a home timeline goes; /feed/scroll pages further.
+        // Pushed entries of pull authors may linger until refreshPullAuthors deletes them, so they are
+        // left out of the total, which counts those authors' posts instead.
+        long matching = timelineEntryRepository.countByOwnerIdExcludingAuthors(owner.getId(), pullAuthorIds)
+                + postRepository.countByUserIds(pullAuthorIds);
+        long total = Math.min(capacity, matching);
+        if (pageable.getOffset() >= capacity) {
+            return new PageImpl<>(List.of(), pageable, total);
+        }
+        int window = (int) Math.min(capacity, pageable.getOffset() + pageable.getPageSize());
+        Pageable head = PageRequest.of(0, window);
+        List<Post> pushed = pushReadTimer.record(
+                () -> timelineEntryRepository.findRecentPostsByOwnerId(owner.getId(), head));
+        List<Post> pulled = pullReadTimer.record(() -> postRepository.findRecentByUserIds(pullAuthorIds, head));
+        List<Post> merged = mergeTimer.record(
+                () -> FeedMerger.merge(List.of(pushed, pulled), pageable.getOffset(), window - (int) pageable.getOffset()));
+        return new PageImpl<>(merged, pageable, total);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Post> getTimeline(User owner, Cursor cursor, int limit) {
+        Pageable head = PageRequest.of(0, limit);
+        List<Long> pullAuthorIds = findPullAuthorsFollowedBy(owner);
+        List<Post> pushed = pushReadTimer.record(() -> cursor == null
+                ? timelineEntryRepository.findRecentPostsByOwnerId(owner.getId(), head)
+                : timelineEntryRepository.findPostsByOwnerIdBefore(owner.getId(), cursor.getCreatedAt(), cursor.getId(), head));
+        if (pullAuthorIds.isEmpty()) {
+            return pushed;
+        }
+        List<Post> pulled = pullReadTimer.record(() -> cursor == null
+                ? postRepository.findRecentByUserIds(pullAuthorIds, head)
+                : postRepository.findByUserIdsBefore(pullAuthorIds, cursor.getCreatedAt(), cursor.getId(), head));
+        return mergeTimer.record(() -> FeedMerger.merge(List.of(pushed, pulled), 0, limit));
+    }
+
+    @Scheduled(fixedDelayString = "${feed.timeline.trim-interval-ms:600000}",
+            initialDelayString = "${feed.timeline.trim-interval-ms:600000}")
+    public void trim() {
+        timelineEntryRepository.trimToCapacity(capacity);
+    }
+
+    @Scheduled(fixedDelayString = "${feed.fanout.refresh-interval-ms:60000}",
+            initialDelayString = "${feed.fanout.refresh-interval-ms:60000}")
+    public void refreshPullAuthors() {
+        Set<Long> next = followGraph.findUsersWithFollowerCountAtLeast(fanoutPolicy.getFollowerThreshold());
+        Set<Long> previous = fanoutPolicy.getPullAuthorIds();
+        for (Long authorId : next) {
+            if (!previous.contains(authorId)) {
+                timelineEntryRepository.deleteFollowerEntriesByAuthorId(authorId);
+            }
+        }
+        for (Long authorId : previous) {
+            if (!next.contains(authorId)) {
+                timelineEntryRepository.backfillFollowersOf(authorId, capacity);
+            }
+        }
+        TransactionHooks.afterCommit(() -> fanoutPolicy.setPullAuthorIds(next));
+    }
+
+    // Runs right after FollowGraph.reload and before anything ordered later, such as a follow import.
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    public void initialize() {
+        if (timelineEntryRepository.count() == 0) {
+            timelineEntryRepository.rebuildAll(capacity);
+        }
+        refreshPullAuthors();
+    }
+
+    private List<Long> findPullAuthorsFollowedBy(User owner) {
+        Set<Long> pullAuthorIds = fanoutPolicy.getPullAuthorIds();
+        if (pullAuthorIds.isEmpty()) {
+            return List.of();
+        }
+        return followGraph.filterFollowing(owner.getId(), pullAuthorIds);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.fakebook.service;
+
+import com.example.fakebook.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UserCountReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(UserCountReconciler.class);
+
+    private final UserRepository userRepository;
+    private final int chunkSize;
+
+    public UserCountReconciler(UserRepository userRepository,
+                               @Value("${users.reconcile.chunk-size:5000}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.chunkSize = chunkSize;
+    }
+
+    // Each chunk commits on its own so row locks on users are held only briefly.
+    @Scheduled(cron = "${users.reconcile.cron:0 45 3 * * *}")
+    public long reconcile() {
+        Long maxId = userRepository.findMaxId();
+        if (maxId == null) {
+            return 0;
+        }
+        long repaired = 0;
+        for (long fromId = 1; fromId <= maxId; fromId += chunkSize) {
+            repaired += userRepository.reconcileCounts(fromId, fromId + chunkSize - 1);
+        }
+        log.info("User count reconciliation repaired {} users up to id {}", repaired, maxId);
+        return repaired;
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.fakebook.service;
+
+import com.example.fakebook.entity.User;
+import com.example.fakebook.repository.UserIdentity;
+import com.example.fakebook.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+// Bloom filters over every username and email, so registration checks for names that were never taken
+// are answered without a query. The filters are local to this instance and only pick up users registered
+// elsewhere at the next rebuild, so a "no" can be stale. They are therefore used only where the unique
+// constraints catch a wrong answer, never for logins. Until the first build completes every name is
+// treated as possibly present.
+@Component
+public class UserExistenceFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(UserExistenceFilter.class);
+
+    private final UserRepository userRepository;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+    private final Side usernames;
+    private final Side emails;
+
+    private volatile Filters filters;
+    private List<UserIdentity> journal;
+
+    public UserExistenceFilter(UserRepository userRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${users.existence-filter.expected-users:1000000}") long expectedUsers,
+                               @Value("${users.existence-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+        this.usernames = new Side("username", Filters::usernames, meterRegistry);
+        this.emails = new Side("email", Filters::emails, meterRegistry);
+    }
+
+    public boolean existsByUsername(String username) {
+        return usernames.exists(username, userRepository::existsByUsername);
+    }
+
+    public boolean existsByEmail(String email) {
+        return emails.exists(email, userRepository::existsByEmail);
+    }
+
+    public synchronized void add(User user) {
+        UserIdentity identity = new UserIdentity(user.getId(), user.getUsername(), user.getEmail());
+        if (filters != null) {
+            filters.add(identity);
+        }
+        if (journal != null) {
+            journal.add(identity);
+        }
+    }
+
+    // Sized for twice the current user count (or the configured expectation, if larger) so the false
+    // positive rate holds while the table grows. The periodic rebuild also picks up users registered
+    // through other instances. Registrations during the scan are journaled and replayed.
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${users.existence-filter.rebuild-interval-ms:600000}",
+            initialDelayString = "${users.existence-filter.rebuild-interval-ms:600000}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (this) {
+            journal = new ArrayList<>();
+        }
+        long userCount = userRepository.count();
+        long capacity = Math.max(expectedUsers, userCount * 2);
+        Filters loaded = new Filters(new BloomFilter(capacity, falsePositiveRate),
+                new BloomFilter(capacity, falsePositiveRate));
+        try (Stream<UserIdentity> identities = userRepository.streamAllIdentities()) {
+            identities.forEach(loaded::add);
+        } catch (RuntimeException ex) {
+            synchronized (this) {
+                journal = null;
+            }
+            throw ex;
+        }
+        synchronized (this) {
+            journal.forEach(loaded::add);
+            journal = null;
+            filters = loaded;
+        }
+        log.info("Rebuilt username/email existence filters for {} users ({} bytes each)",
+                userCount, loaded.usernames().sizeInBytes());
+    }
+
+    private record Filters(BloomFilter usernames, BloomFilter emails) {
+
+        void add(UserIdentity identity) {
+            usernames.put(identity.getUsername());
+            emails.put(identity.getEmail());
+        }
+    }
+
+    private final class Side {
+
+        private final Function<Filters, BloomFilter> selector;
+        private final Counter skipped;
+        private final Counter confirmed;
+        private final Counter falsePositives;
+
+        private Side(String name, Function<Filters, BloomFilter> selector, MeterRegistry meterRegistry) {
+            this.selector = selector;
+            this.skipped = counter(meterRegistry, name, "skipped");
+            this.confirmed = counter(meterRegistry, name, "confirmed");
+            this.falsePositives = counter(meterRegistry, name, "false_positive");
+            Gauge.builder("users.existence.filter.false.positive.rate", this, Side::observedFalsePositiveRate)
+                    .description("Share of absent names the filter could not rule out, as observed from lookups")
+                    .tag("filter", name)
+                    .register(meterRegistry);
+            Gauge.builder("users.existence.filter.expected.false.positive.rate", this, Side::expectedFalsePositiveRate)
+                    .description("False positive rate predicted from the filter's fill ratio")
+                    .tag("filter", name)
+                    .register(meterRegistry);
+        }
+
+        private boolean exists(String value, Predicate<String> query) {
+            Filters current = filters;
+            if (value == null || (current != null && !selector.apply(current).mightContain(value))) {
+                skipped.increment();
+                return false;
+            }
+            boolean found = query.test(value);
+            if (current != null) {
+                (found ? confirmed : falsePositives).increment();
+            }
+            return found;
+        }
+
+        private double observedFalsePositiveRate() {
+            double negatives = skipped.count() + falsePositives.count();
+            return negatives == 0 ? 0 : falsePositives.count() / negatives;
+        }
+
+        private double expectedFalsePositiveRate() {
+            Filters current = filters;
+            return current == null ? 1 : selector.apply(current).expectedFalsePositiveRate();
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String result) {
+        return Counter.builder("users.existence.filter.lookups")
+                .description("Username/email lookups by how the existence filter answered them")
+                .tag("filter", name)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.fakebook.service;
+
+import com.example.fakebook.dto.user.UserSearchResponse;
+import com.example.fakebook.repository.UserIdentity;
+import com.example.fakebook.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+// Case-insensitive username prefix index for typeahead. Users loaded at the last rebuild sit in sorted
+// parallel arrays searched by binary search; users registered since then go to a small concurrent
+// skip list. A query merges both ranges and stops after the requested number of matches, so its cost
+// is O(log n + k) regardless of how many usernames share the prefix.
+@Component
+public class UserSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::key).thenComparingLong(Entry::id);
+
+    private final UserRepository userRepository;
+    private final int defaultResults;
+    private final int maxResults;
+    private final ConcurrentSkipListSet<Entry> recent = new ConcurrentSkipListSet<>(ORDER);
+    private volatile Snapshot snapshot = new Snapshot(new String[0], new long[0], new String[0]);
+    private List<Entry> journal;
+
+    public UserSearchIndex(UserRepository userRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${users.search.default-size:10}") int defaultResults,
+                           @Value("${users.search.max-size:20}") int maxResults) {
+        this.userRepository = userRepository;
+        this.defaultResults = defaultResults;
+        this.maxResults = maxResults;
+        Gauge.builder("users.search.index.size", this, UserSearchIndex::size)
+                .description("Usernames held in the typeahead prefix index")
+                .register(meterRegistry);
+    }
+
+    public List<UserSearchResponse> search(String prefix, Integer size) {
+        int limit = size == null ? defaultResults : Math.max(1, Math.min(size, maxResults));
+        String key = normalize(prefix);
+        List<UserSearchResponse> results = new ArrayList<>(limit);
+        if (key.isEmpty()) {
+            return results;
+        }
+        Snapshot current = snapshot;
+        int index = current.lowerBound(key);
+        Iterator<Entry> delta = recent.tailSet(new Entry(key, Long.MIN_VALUE, null)).iterator();
+        Entry pending = nextMatching(delta, key);
+        while (results.size() < limit) {
+            boolean baseMatches = index < current.keys.length && current.keys[index].startsWith(key);
+            if (!baseMatches && pending == null) {
+                break;
+            }
+            int order = !baseMatches ? 1 : pending == null ? -1 : current.compare(index, pending);
+            if (order <= 0) {
+                results.add(new UserSearchResponse(current.ids[index], current.usernames[index]));
+                index++;
+                // Present in both only for the instant between a rebuild's swap and its delta clear.
+                if (order == 0) {
+                    pending = nextMatching(delta, key);
+                }
+            } else {
+                results.add(new UserSearchResponse(pending.id(), pending.username()));
+                pending = nextMatching(delta, key);
+            }
+        }
+        return results;
+    }
+
+    public synchronized void add(Long id, String username) {
+        Entry entry = new Entry(normalize(username), id, username);
+        recent.add(entry);
+        if (journal != null) {
+            journal.add(entry);
+        }
+    }
+
+    // Folds recent registrations into the sorted arrays and picks up users registered through other
+    // instances. Registrations during the scan are journaled and included in the new snapshot.
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${users.search.rebuild-interval-ms:600000}",
+            initialDelayString = "${users.search.rebuild-interval-ms:600000}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (this) {
+            journal = new ArrayList<>();
+        }
+        List<Entry> entries = new ArrayList<>();
+        try (Stream<UserIdentity> identities = userRepository.streamAllIdentities()) {
+            identities.forEach(identity -> entries.add(
+                    new Entry(normalize(identity.getUsername()), identity.getId(), identity.getUsername())));
+        } catch (RuntimeException ex) {
+            synchronized (this) {
+                journal = null;
+            }
+            throw ex;
+        }
+        synchronized (this) {
+            entries.addAll(journal);
+            journal = null;
+            snapshot = Snapshot.of(entries);
+            recent.clear();
+        }
+        log.info("Rebuilt username prefix index with {} users", snapshot.keys.length);
+    }
+
+    int size() {
+        return snapshot.keys.length + recent.size();
+    }
+
+    private static Entry nextMatching(Iterator<Entry> delta, String key) {
+        if (delta.hasNext()) {
+            Entry entry = delta.next();
+            return entry.key().startsWith(key) ? entry : null;
+        }
+        return null;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry(String key, long id, String username) {
+    }
+
+    private record Snapshot(String[] keys, long[] ids, String[] usernames) {
+
+        static Snapshot of(List<Entry> entries) {
+            entries.sort(ORDER);
+            int size = 0;
+            String[] keys = new String[entries.size()];
+            long[] ids = new long[entries.size()];
+            String[] usernames = new String[entries.size()];
+            for (Entry entry : entries) {
+                if (size > 0 && ids[size - 1] == entry.id() && keys[size - 1].equals(entry.key())) {
+                    continue;
+                }
+                keys[size] = entry.key();
+                ids[size] = entry.id();
+                usernames[size] = entry.username();
+                size++;
+            }
+            if (size < entries.size()) {
+                return new Snapshot(Arrays.copyOf(keys, size), Arrays.copyOf(ids, size),
+                        Arrays.copyOf(usernames, size));
+            }
+            return new Snapshot(keys, ids, usernames);
+        }
+
+        int lowerBound(String key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        int compare(int index, Entry entry) {
+            int byKey = keys[index].compareTo(entry.key());
+            return byKey != 0 ? byKey : Long.compare(ids[index], entry.id());
+        }
+    }
+}
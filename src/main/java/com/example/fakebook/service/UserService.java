@@ -1,52 +1,111 @@
 package com.example.fakebook.service;
 
-import com.example.fakebook.dto.user.FollowResponse;
 import com.example.fakebook.dto.user.UpdateProfileRequest;
 import com.example.fakebook.dto.user.UserResponse;
+import com.example.fakebook.dto.user.UserSearchResponse;
 import com.example.fakebook.entity.User;
+import com.example.fakebook.exception.BadRequestException;
 import com.example.fakebook.exception.ResourceNotFoundException;
 import com.example.fakebook.mapper.UserMapper;
-import com.example.fakebook.repository.FollowRepository;
 import com.example.fakebook.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 @Transactional
 public class UserService {
 
     private final UserRepository userRepository;
-    private final FollowRepository followRepository;
     private final UserMapper userMapper;
+    private final UserSearchIndex userSearchIndex;
+    private final int maxBatchIds;
+    // Profiles change rarely but are read for every avatar and name shown. Follower/following/post
+    // counts may lag by up to the TTL; profile edits evict the entry on commit.
+    private final Cache<Long, UserResponse> profileCache;
+    private final Counter queriesSaved;
 
-    public UserService(UserRepository userRepository, FollowRepository followRepository, UserMapper userMapper) {
+    public UserService(UserRepository userRepository,
+                       UserMapper userMapper,
+                       UserSearchIndex userSearchIndex,
+                       MeterRegistry meterRegistry,
+                       @Value("${users.profile-cache.max-size:50000}") long cacheSize,
+                       @Value("${users.profile-cache.ttl-ms:30000}") long cacheTtlMs,
+                       @Value("${users.batch.max-ids:100}") int maxBatchIds) {
         this.userRepository = userRepository;
-        this.followRepository = followRepository;
         this.userMapper = userMapper;
+        this.userSearchIndex = userSearchIndex;
+        this.maxBatchIds = maxBatchIds;
+        this.profileCache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, profileCache, "users.profile");
+        this.queriesSaved = Counter.builder("users.profile.queries.saved")
+                .description("User lookups avoided by the profile cache and by batching ids into one query")
+                .register(meterRegistry);
     }
 
+    @Transactional(readOnly = true)
     public UserResponse getUserProfile(Long id) {
+        UserResponse cached = profileCache.getIfPresent(id);
+        if (cached != null) {
+            queriesSaved.increment();
+            return cached;
+        }
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        return userMapper.toUserResponse(user);
+        UserResponse response = userMapper.toUserResponse(user);
+        profileCache.put(id, response);
+        return response;
     }
 
-    public UserResponse updateProfile(User user, UpdateProfileRequest request) {
-        userMapper.updateUserFromRequest(request, user);
-        return userMapper.toUserResponse(userRepository.save(user));
+    // Profiles in request order; unknown ids are left out. Cache misses are loaded with one query.
+    @Transactional(readOnly = true)
+    public List<UserResponse> getUserProfiles(List<Long> ids) {
+        Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+        if (uniqueIds.size() > maxBatchIds) {
+            throw new BadRequestException("At most " + maxBatchIds + " user ids can be requested at once");
+        }
+        Map<Long, UserResponse> found = new HashMap<>(profileCache.getAllPresent(uniqueIds));
+        List<Long> missing = uniqueIds.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            for (User user : userRepository.findAllById(missing)) {
+                UserResponse response = userMapper.toUserResponse(user);
+                profileCache.put(user.getId(), response);
+                found.put(user.getId(), response);
+            }
+        }
+        queriesSaved.increment(uniqueIds.size() - (missing.isEmpty() ? 0 : 1));
+        return uniqueIds.stream().map(found::get).filter(Objects::nonNull).toList();
     }
 
-    public List<FollowResponse> getFollowers(User user) {
-        return followRepository.findAllByFollowing(user).stream()
-                .map(follow -> userMapper.toFollowResponse(follow.getFollower()))
-                .toList();
+    // Served from memory; usernames cannot be changed through updateProfile, so only registration
+    // feeds the index.
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<UserSearchResponse> searchUsers(String prefix, Integer size) {
+        return userSearchIndex.search(prefix, size);
     }
 
-    public List<FollowResponse> getFollowing(User user) {
-        return followRepository.findAllByFollower(user).stream()
-                .map(follow -> userMapper.toFollowResponse(follow.getFollowing()))
-                .toList();
+    public UserResponse updateProfile(User user, UpdateProfileRequest request) {
+        userMapper.updateUserFromRequest(request, user);
+        UserResponse response = userMapper.toUserResponse(userRepository.save(user));
+        TransactionHooks.afterCommit(() -> profileCache.invalidate(user.getId()));
+        return response;
     }
 }
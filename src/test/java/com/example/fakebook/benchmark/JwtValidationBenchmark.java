@@ -0,0 +1,55 @@
+package com.example.fakebook.benchmark;
+
+import com.example.fakebook.entity.User;
+import com.example.fakebook.security.JwtService;
+import com.example.fakebook.security.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token: the former path, which rebuilt the HMAC key and
+ * verified the signature once for the filter's username lookup and twice more in isTokenValid, against
+ * a single verified parse with the key and parser built once. See the README for how to run it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET = "MDEyMzQ1Njc4OTAxMjM0NTY3ODkwMTIzNDU2Nzg5MDE=";
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(SECRET, 3_600_000L);
+        token = jwtService.generateToken(User.builder().id(42L).username("alice").build());
+    }
+
+    @Benchmark
+    public boolean rebuildKeyAndParseThreeTimes() {
+        String username = parse(token).getSubject();
+        return username.equals(parse(token).getSubject()) && parse(token).getExpiration().after(new Date());
+    }
+
+    @Benchmark
+    public VerifiedToken cachedParserSingleParse() {
+        return jwtService.validate(token);
+    }
+
+    private static Claims parse(String token) {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    }
+}
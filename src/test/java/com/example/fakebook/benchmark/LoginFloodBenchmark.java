@@ -0,0 +1,147 @@
+package com.example.fakebook.benchmark;
+
+import com.example.fakebook.dto.auth.LoginRequest;
+import com.example.fakebook.dto.post.PostResponse;
+import com.example.fakebook.entity.Post;
+import com.example.fakebook.entity.User;
+import com.example.fakebook.exception.ServiceUnavailableException;
+import com.example.fakebook.mapper.CommentMapper;
+import com.example.fakebook.mapper.PostMapperImpl;
+import com.example.fakebook.mapper.UserMapperImpl;
+import com.example.fakebook.repository.CommentRepository;
+import com.example.fakebook.repository.PostLikeRepository;
+import com.example.fakebook.repository.PostRepository;
+import com.example.fakebook.repository.UserRepository;
+import com.example.fakebook.security.JwtService;
+import com.example.fakebook.security.PasswordHashingExecutor;
+import com.example.fakebook.service.AuthService;
+import com.example.fakebook.service.LikeCounterBuffer;
+import com.example.fakebook.service.PostSearchIndex;
+import com.example.fakebook.service.PostService;
+import com.example.fakebook.service.TimelineService;
+import com.example.fakebook.service.UserExistenceFilter;
+import com.example.fakebook.service.UserSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Feed latency during a login flood: fourteen threads call AuthService.login with real BCrypt checks while
+ * two threads read a 20-post feed page through PostService (repositories are mocked, mapping is real).
+ * With {@code hashing=caller} every login hashes on its own thread, as before the hashing pool; with
+ * {@code hashing=pool} logins go through a PasswordHashingExecutor with two threads and a queue of four,
+ * and the excess is rejected; rejected clients back off for 10 ms. Compare the {@code flood:feed}
+ * percentiles between the two modes.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LoginFloodBenchmark {
+
+    private static final String SECRET = "MDEyMzQ1Njc4OTAxMjM0NTY3ODkwMTIzNDU2Nzg5MDE=";
+
+    @Param({"caller", "pool"})
+    public String hashing;
+
+    private PasswordHashingExecutor executor;
+    private AuthService authService;
+    private PostService postService;
+    private LoginRequest login;
+    private User reader;
+
+    @Setup
+    public void setUp() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+        reader = User.builder().id(1L).username("alice").email("alice@example.com")
+                .password(encoder.encode("secret")).build();
+        login = new LoginRequest();
+        login.setUsernameOrEmail("alice");
+        login.setPassword("secret");
+
+        executor = "pool".equals(hashing)
+                ? new PasswordHashingExecutor(new SimpleMeterRegistry(), 2, 4, 5_000)
+                : new PasswordHashingExecutor(new SimpleMeterRegistry(), 1, 1, 5_000) {
+                    @Override
+                    public <T> T call(Supplier<T> task) {
+                        return task.get();
+                    }
+                };
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(new InMemoryUserDetailsManager(
+                org.springframework.security.core.userdetails.User.withUsername("alice")
+                        .password(reader.getPassword()).roles("USER").build()));
+        provider.setPasswordEncoder(encoder);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(reader));
+        authService = new AuthService(userRepository, encoder, new ProviderManager(provider),
+                new JwtService(SECRET, 3_600_000L), executor, mock(UserExistenceFilter.class),
+                mock(UserSearchIndex.class));
+
+        Instant now = Instant.now();
+        List<Post> timeline = LongStream.rangeClosed(1, 20)
+                .mapToObj(id -> Post.builder().id(id).user(reader).content("post " + id)
+                        .createdAt(now.minusSeconds(id)).build())
+                .toList();
+        TimelineService timelineService = mock(TimelineService.class);
+        when(timelineService.getTimeline(any(User.class), any(PageRequest.class)))
+                .thenReturn(new PageImpl<>(timeline));
+        PostLikeRepository postLikeRepository = mock(PostLikeRepository.class);
+        when(postLikeRepository.findLikedPostIds(anyLong(), any())).thenReturn(List.of(1L, 3L));
+        CommentRepository commentRepository = mock(CommentRepository.class);
+        when(commentRepository.findLatestByPostIds(any(), anyInt())).thenReturn(List.of());
+        PostMapperImpl postMapper = new PostMapperImpl();
+        ReflectionTestUtils.setField(postMapper, "userMapper", new UserMapperImpl());
+        postService = new PostService(mock(PostRepository.class), userRepository, postLikeRepository,
+                timelineService, new LikeCounterBuffer(null, 500), commentRepository, postMapper,
+                mock(CommentMapper.class), mock(PostSearchIndex.class), 3, 100);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    @Group("flood")
+    @GroupThreads(14)
+    public Object login() {
+        try {
+            return authService.login(login);
+        } catch (ServiceUnavailableException ex) {
+            // A turned-away client backs off instead of retrying in a tight loop.
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+            return ex;
+        }
+    }
+
+    @Benchmark
+    @Group("flood")
+    @GroupThreads(2)
+    public Page<PostResponse> feed() {
+        return postService.getNewsfeed(reader, PageRequest.of(0, 20));
+    }
+}
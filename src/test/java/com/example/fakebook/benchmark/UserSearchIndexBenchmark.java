@@ -0,0 +1,69 @@
+package com.example.fakebook.benchmark;
+
+import com.example.fakebook.dto.user.UserSearchResponse;
+import com.example.fakebook.repository.UserIdentity;
+import com.example.fakebook.repository.UserRepository;
+import com.example.fakebook.service.UserSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Typeahead latency over one million usernames: top-10 prefix lookups for prefixes of one to four
+ * characters, with a few thousand registrations waiting in the index's recent-user delta.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class UserSearchIndexBenchmark {
+
+    private static final int USERS = 1_000_000;
+    private static final int RECENT_USERS = 5_000;
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz0123456789_";
+
+    private UserSearchIndex index;
+    private String[] prefixes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.streamAllIdentities()).thenReturn(LongStream.rangeClosed(1, USERS)
+                .mapToObj(id -> new UserIdentity(id, randomName(random), null)));
+        index = new UserSearchIndex(userRepository, new SimpleMeterRegistry(), 10, 10);
+        index.rebuild();
+        for (long id = USERS + 1; id <= USERS + RECENT_USERS; id++) {
+            index.add(id, randomName(random));
+        }
+        prefixes = new String[4096];
+        for (int i = 0; i < prefixes.length; i++) {
+            prefixes[i] = randomName(random).substring(0, 1 + i % 4);
+        }
+    }
+
+    @Benchmark
+    public List<UserSearchResponse> topTenByPrefix() {
+        String prefix = prefixes[next++ & (prefixes.length - 1)];
+        return index.search(prefix, 10);
+    }
+
+    private static String randomName(Random random) {
+        int length = 5 + random.nextInt(11);
+        StringBuilder name = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            name.append(ALPHABET.charAt(random.nextInt(i == 0 ? 26 : ALPHABET.length())));
+        }
+        return name.toString();
+    }
+}
@@ -25,7 +25,7 @@ class JwtServiceTest {
 
     @BeforeEach
     void setUp() {
-        jwtService = new JwtService(BASE64_SECRET, 1_000L);
+        jwtService = new JwtService(BASE64_SECRET, 60_000L);
         userDetails = new User("alice", "password", Collections.emptyList());
     }
 
@@ -37,7 +37,7 @@ class JwtServiceTest {
         long lifetime = claims.getExpiration().getTime() - claims.getIssuedAt().getTime();
 
         assertThat(claims.getSubject()).isEqualTo(userDetails.getUsername());
-        assertThat(lifetime).isEqualTo(1_000L);
+        assertThat(lifetime).isEqualTo(60_000L);
         assertThat(claims.getExpiration()).isAfter(claims.getIssuedAt());
     }
 
@@ -72,15 +72,46 @@ class JwtServiceTest {
 
     @Test
     void tamperedTokenTriggersParsingException() {
-        String token = jwtService.generateToken(userDetails);
-        char lastChar = token.charAt(token.length() - 1);
-        char replacement = lastChar == 'a' ? 'b' : 'a';
-        String tamperedToken = token.substring(0, token.length() - 1) + replacement;
+        String tamperedToken = tamperSignature(jwtService.generateToken(userDetails));
 
         assertThatThrownBy(() -> jwtService.extractUsername(tamperedToken))
                 .isInstanceOf(JwtException.class);
     }
 
+    @Test
+    void validateReturnsImmutableClaimsFromSingleParse() {
+        com.example.fakebook.entity.User user = com.example.fakebook.entity.User.builder()
+                .id(42L).username("alice").build();
+        String token = jwtService.generateToken(user);
+
+        VerifiedToken verified = jwtService.validate(token);
+
+        assertThat(verified.getUserId()).isEqualTo(42L);
+        assertThat(verified.getUsername()).isEqualTo("alice");
+        assertThat(verified.getExpiresAt()).isEqualTo(parseClaims(token).getExpiration().toInstant());
+        assertThat(verified.toPrincipal()).isEqualTo(new AuthenticatedUser(42L, "alice"));
+    }
+
+    @Test
+    void validateRejectsExpiredTamperedAndClaimlessTokens() {
+        com.example.fakebook.entity.User user = com.example.fakebook.entity.User.builder()
+                .id(42L).username("alice").build();
+        String expired = new JwtService(BASE64_SECRET, -1_000L).generateToken(user);
+        String tampered = tamperSignature(jwtService.generateToken(user));
+
+        assertThat(jwtService.validate(expired)).isNull();
+        assertThat(jwtService.validate(tampered)).isNull();
+        assertThat(jwtService.validate(jwtService.generateToken(userDetails))).isNull();
+        assertThat(jwtService.validate("not-a-token")).isNull();
+    }
+
+    // The last base64url character of a signature carries padding bits, so change the first one instead.
+    private String tamperSignature(String token) {
+        int signatureStart = token.lastIndexOf('.') + 1;
+        char replacement = token.charAt(signatureStart) == 'a' ? 'b' : 'a';
+        return token.substring(0, signatureStart) + replacement + token.substring(signatureStart + 1);
+    }
+
     private Claims parseClaims(String token) {
         Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(BASE64_SECRET));
         return Jwts.parserBuilder()
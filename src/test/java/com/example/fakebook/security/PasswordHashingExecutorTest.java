@@ -0,0 +1,115 @@
+package com.example.fakebook.security;
+
+import com.example.fakebook.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<PasswordHashingExecutor> executors = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        executors.forEach(PasswordHashingExecutor::shutdown);
+    }
+
+    @Test
+    void callReturnsResultAndRecordsLatency() {
+        PasswordHashingExecutor executor = executor(1, 1, 1_000);
+
+        assertThat(executor.call(() -> "hash")).isEqualTo("hash");
+        assertThat(meterRegistry.get("auth.hash.latency").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void callRethrowsAuthenticationFailuresUnchanged() {
+        PasswordHashingExecutor executor = executor(1, 1, 1_000);
+
+        assertThatThrownBy(() -> executor.call(() -> {
+            throw new BadCredentialsException("bad");
+        })).isInstanceOf(BadCredentialsException.class);
+    }
+
+    @Test
+    void callRejectsImmediatelyWhenQueueIsFull() throws Exception {
+        PasswordHashingExecutor executor = executor(1, 1, 5_000);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        callers.submit(() -> executor.call(awaiting(release)));
+        callers.submit(() -> executor.call(awaiting(release)));
+        while (meterRegistry.get("auth.hash.queue.depth").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        assertThatThrownBy(() -> executor.call(() -> "third")).isInstanceOf(ServiceUnavailableException.class);
+        assertThat(meterRegistry.get("auth.hash.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        callers.shutdown();
+        assertThat(callers.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void floodBeyondQueueCapacityIsShedWithoutGrowingTheQueue() throws Exception {
+        PasswordHashingExecutor executor = executor(1, 2, 5_000);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(3);
+        List<Future<String>> admitted = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            admitted.add(callers.submit(() -> executor.call(awaiting(release))));
+        }
+        while (meterRegistry.get("auth.hash.queue.depth").gauge().value() < 2) {
+            Thread.onSpinWait();
+        }
+
+        int rejected = 0;
+        for (int i = 0; i < 10; i++) {
+            try {
+                executor.call(() -> "flood");
+            } catch (ServiceUnavailableException ex) {
+                rejected++;
+            }
+        }
+
+        assertThat(rejected).isEqualTo(10);
+        assertThat(meterRegistry.get("auth.hash.rejected").counter().count()).isEqualTo(10);
+        assertThat(meterRegistry.get("auth.hash.queue.depth").gauge().value()).isEqualTo(2);
+        release.countDown();
+        for (Future<String> call : admitted) {
+            assertThat(call.get(5, TimeUnit.SECONDS)).isEqualTo("hash");
+        }
+        callers.shutdown();
+    }
+
+    private PasswordHashingExecutor executor(int threads, int queueCapacity, long timeoutMs) {
+        PasswordHashingExecutor executor = new PasswordHashingExecutor(meterRegistry, threads, queueCapacity, timeoutMs);
+        executors.add(executor);
+        return executor;
+    }
+
+    private static Supplier<String> awaiting(CountDownLatch latch) {
+        return () -> {
+            try {
+                latch.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return "hash";
+        };
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.fakebook.security;
+
+import com.example.fakebook.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    private static final String BASE64_SECRET = "MDEyMzQ1Njc4OTAxMjM0NTY3ODkwMTIzNDU2Nzg5MDE=";
+
+    private CountingJwtService jwtService;
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new CountingJwtService(60_000L);
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock(Instant.now());
+    }
+
+    @Test
+    void repeatedTokenIsVerifiedOnce() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtService, meterRegistry, 100, 300_000, clock);
+        String token = jwtService.generateToken(user(1L));
+
+        assertThat(cache.validate(token).getUserId()).isEqualTo(1L);
+        assertThat(cache.validate(token).getUserId()).isEqualTo(1L);
+
+        assertThat(jwtService.validations.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("jwt.verified.hit.ratio").gauge().value()).isEqualTo(0.5);
+    }
+
+    @Test
+    void entryExpiresNoLaterThanToken() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtService, meterRegistry, 100, 600_000, clock);
+        String token = jwtService.generateToken(user(1L));
+        cache.validate(token);
+
+        clock.advance(Duration.ofSeconds(61));
+        cache.validate(token);
+
+        assertThat(jwtService.validations.get()).isEqualTo(2);
+    }
+
+    @Test
+    void entryIsReusedUntilMaxTtlOnTheInjectedClock() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtService, meterRegistry, 100, 10_000, clock);
+        String token = jwtService.generateToken(user(1L));
+        cache.validate(token);
+
+        clock.advance(Duration.ofSeconds(9));
+        cache.validate(token);
+        clock.advance(Duration.ofSeconds(2));
+        cache.validate(token);
+
+        assertThat(jwtService.validations.get()).isEqualTo(2);
+    }
+
+    @Test
+    void invalidTokensAreNotCached() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtService, meterRegistry, 100, 300_000, clock);
+
+        assertThat(cache.validate("not-a-token")).isNull();
+        assertThat(cache.validate("not-a-token")).isNull();
+
+        assertThat(jwtService.validations.get()).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentRequestThreadsAlwaysSeeTheirOwnTokensClaims() throws Exception {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtService, meterRegistry, 64, 300_000, clock);
+        List<String> tokens = new ArrayList<>();
+        for (long id = 1; id <= 200; id++) {
+            tokens.add(jwtService.generateToken(user(id)));
+        }
+        int threads = 32;
+        int iterations = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            results.add(executor.submit(() -> {
+                start.await();
+                int mismatches = 0;
+                for (int i = 0; i < iterations; i++) {
+                    // Skewed towards a hot set smaller than the cache, with a cold tail forcing evictions.
+                    int index = i % 10 == 0 ? (seed * 31 + i) % tokens.size() : (seed + i) % 16;
+                    VerifiedToken verified = cache.validate(tokens.get(index));
+                    if (verified == null || verified.getUserId() != index + 1L) {
+                        mismatches++;
+                    }
+                }
+                return mismatches;
+            }));
+        }
+        start.countDown();
+        int mismatches = 0;
+        for (Future<Integer> result : results) {
+            mismatches += result.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(mismatches).isZero();
+        assertThat(jwtService.validations.get()).isLessThan(threads * iterations / 2);
+        assertThat(meterRegistry.get("cache.evictions").tag("cache", "jwt.verified").functionCounter().count())
+                .isPositive();
+    }
+
+    private static User user(long id) {
+        return User.builder().id(id).username("user" + id).build();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static final class CountingJwtService extends JwtService {
+
+        private final AtomicInteger validations = new AtomicInteger();
+
+        private CountingJwtService(long expiration) {
+            super(BASE64_SECRET, expiration);
+        }
+
+        @Override
+        public VerifiedToken validate(String token) {
+            validations.incrementAndGet();
+            return super.validate(token);
+        }
+    }
+}
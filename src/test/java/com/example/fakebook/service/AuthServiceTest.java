@@ -5,7 +5,10 @@ import com.example.fakebook.dto.auth.RegisterRequest;
 import com.example.fakebook.entity.User;
 import com.example.fakebook.exception.BadRequestException;
 import com.example.fakebook.repository.UserRepository;
+import com.example.fakebook.security.AuthenticatedUser;
 import com.example.fakebook.security.JwtService;
+import com.example.fakebook.security.PasswordHashingExecutor;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,10 +17,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
@@ -35,7 +43,11 @@ class AuthServiceTest {
     @Mock
     private JwtService jwtService;
     @Mock
-    private UserDetailsService userDetailsService;
+    private PasswordHashingExecutor passwordHashingExecutor;
+    @Mock
+    private UserExistenceFilter userExistenceFilter;
+    @Mock
+    private UserSearchIndex userSearchIndex;
 
     @InjectMocks
     private AuthService authService;
@@ -48,15 +60,26 @@ class AuthServiceTest {
         request.setUsername("john");
         request.setEmail("john@example.com");
         request.setPassword("password");
+        lenient().when(passwordHashingExecutor.call(any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
     }
 
     @Test
     void registerCreatesUserAndReturnsToken() {
-        when(userRepository.existsByUsername("john")).thenReturn(false);
-        when(userRepository.existsByEmail("john@example.com")).thenReturn(false);
+        when(userExistenceFilter.existsByUsername("john")).thenReturn(false);
+        when(userExistenceFilter.existsByEmail("john@example.com")).thenReturn(false);
         when(passwordEncoder.encode("password")).thenReturn("hashed");
-        when(userDetailsService.loadUserByUsername("john")).thenReturn(mock(UserDetails.class));
-        when(jwtService.generateToken(any(UserDetails.class))).thenReturn("token");
+        when(jwtService.generateToken(any(User.class))).thenReturn("token");
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+            User saved = invocation.getArgument(0);
+            saved.setId(7L);
+            return saved;
+        });
 
         AuthResponse response = authService.register(request);
 
@@ -64,11 +87,14 @@ class AuthServiceTest {
         verify(userRepository).save(captor.capture());
         assertThat(captor.getValue().getPassword()).isEqualTo("hashed");
         assertThat(response.getToken()).isEqualTo("token");
+        verify(passwordHashingExecutor).call(any());
+        verify(userExistenceFilter).add(captor.getValue());
+        verify(userSearchIndex).add(7L, "john");
     }
 
     @Test
     void registerThrowsWhenUsernameExists() {
-        when(userRepository.existsByUsername("john")).thenReturn(true);
+        when(userExistenceFilter.existsByUsername("john")).thenReturn(true);
 
         assertThatThrownBy(() -> authService.register(request))
                 .isInstanceOf(BadRequestException.class)
@@ -76,4 +102,35 @@ class AuthServiceTest {
 
         verify(userRepository, never()).save(any());
     }
+
+    @Test
+    void getCurrentUserIsBuiltFromTokenClaimsWithoutQueries() {
+        authenticate(new AuthenticatedUser(7L, "john"));
+
+        User user = authService.getCurrentUser();
+
+        assertThat(user.getId()).isEqualTo(7L);
+        assertThat(user.getUsername()).isEqualTo("john");
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void loadCurrentUserReadsTheStoredUser() {
+        authenticate(new AuthenticatedUser(7L, "john"));
+        User stored = User.builder().id(7L).username("john").bio("hello").build();
+        when(userRepository.findById(7L)).thenReturn(Optional.of(stored));
+
+        assertThat(authService.loadCurrentUser()).isSameAs(stored);
+    }
+
+    @Test
+    void getCurrentUserThrowsWithoutAuthentication() {
+        assertThatThrownBy(() -> authService.getCurrentUser())
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private void authenticate(AuthenticatedUser principal) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                principal, null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
 }
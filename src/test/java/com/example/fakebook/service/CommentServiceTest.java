@@ -2,6 +2,8 @@ package com.example.fakebook.service;
 
 import com.example.fakebook.dto.comment.CommentRequest;
 import com.example.fakebook.dto.comment.CommentResponse;
+import com.example.fakebook.dto.common.Cursor;
+import com.example.fakebook.dto.common.CursorPage;
 import com.example.fakebook.entity.Comment;
 import com.example.fakebook.entity.Post;
 import com.example.fakebook.entity.User;
@@ -10,13 +12,16 @@ import com.example.fakebook.exception.ResourceNotFoundException;
 import com.example.fakebook.mapper.CommentMapper;
 import com.example.fakebook.repository.CommentRepository;
 import com.example.fakebook.repository.PostRepository;
+import com.example.fakebook.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -32,9 +37,10 @@ class CommentServiceTest {
     @Mock
     private PostRepository postRepository;
     @Mock
+    private UserRepository userRepository;
+    @Mock
     private CommentMapper commentMapper;
 
-    @InjectMocks
     private CommentService commentService;
 
     private User user;
@@ -43,6 +49,7 @@ class CommentServiceTest {
 
     @BeforeEach
     void setUp() {
+        commentService = new CommentService(commentRepository, postRepository, userRepository, commentMapper, 2, 50);
         user = User.builder().id(1L).username("john").build();
         post = Post.builder().id(2L).build();
         comment = Comment.builder().id(3L).user(user).post(post).content("Nice!").build();
@@ -54,6 +61,7 @@ class CommentServiceTest {
         request.setContent("Great post");
         when(postRepository.findById(2L)).thenReturn(Optional.of(post));
         when(commentMapper.toEntity(request)).thenReturn(new Comment());
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
         when(commentRepository.save(any(Comment.class))).thenReturn(comment);
         when(commentMapper.toResponse(comment)).thenReturn(new CommentResponse());
 
@@ -82,4 +90,44 @@ class CommentServiceTest {
         assertThatThrownBy(() -> commentService.deleteComment(user, 7L))
                 .isInstanceOf(ResourceNotFoundException.class);
     }
+
+    @Test
+    void getCommentsReturnsDefaultSizedPageWithNextCursor() {
+        Instant now = Instant.now();
+        Comment first = Comment.builder().id(4L).user(user).post(post).createdAt(now).build();
+        Comment second = Comment.builder().id(5L).user(user).post(post).createdAt(now.plusSeconds(1)).build();
+        Comment third = Comment.builder().id(6L).user(user).post(post).createdAt(now.plusSeconds(2)).build();
+        when(commentRepository.findFirstByPostId(2L, PageRequest.of(0, 3))).thenReturn(List.of(first, second, third));
+        when(commentMapper.toResponse(any(Comment.class))).thenReturn(new CommentResponse());
+
+        CursorPage<CommentResponse> page = commentService.getComments(2L, null, null);
+
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(Cursor.decode(page.getNextCursor())).isEqualTo(new Cursor(second.getCreatedAt(), 5L));
+        verify(postRepository, never()).existsById(any());
+    }
+
+    @Test
+    void getCommentsSeeksPastCursorAndCapsPageSize() {
+        Instant createdAt = Instant.now();
+        String cursor = new Cursor(createdAt, 4L).encode();
+        when(commentRepository.findByPostIdAfter(2L, createdAt, 4L, PageRequest.of(0, 51))).thenReturn(List.of(comment));
+        when(commentMapper.toResponse(comment)).thenReturn(new CommentResponse());
+
+        CursorPage<CommentResponse> page = commentService.getComments(2L, cursor, 500);
+
+        assertThat(page.getContent()).hasSize(1);
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getCommentsThrowsWhenPostMissing() {
+        when(commentRepository.findFirstByPostId(9L, PageRequest.of(0, 3))).thenReturn(List.of());
+        when(postRepository.existsById(9L)).thenReturn(false);
+
+        assertThatThrownBy(() -> commentService.getComments(9L, null, null))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
 }
@@ -0,0 +1,51 @@
+package com.example.fakebook.service;
+
+import com.example.fakebook.entity.Post;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FeedMergerTest {
+
+    private final Instant now = Instant.now();
+
+    @Test
+    void mergeInterleavesSourcesNewestFirst() {
+        Post a = post(1L, 50);
+        Post b = post(2L, 40);
+        Post c = post(3L, 30);
+        Post d = post(4L, 20);
+
+        List<Post> merged = FeedMerger.merge(List.of(List.of(a, c), List.of(b), List.of(d)), 0, 10);
+
+        assertThat(merged).containsExactly(a, b, c, d);
+    }
+
+    @Test
+    void mergeBreaksTimestampTiesByIdAndDropsDuplicates() {
+        Post older = post(1L, 10);
+        Post newer = post(2L, 10);
+
+        List<Post> merged = FeedMerger.merge(List.of(List.of(newer, older), List.of(newer)), 0, 10);
+
+        assertThat(merged).containsExactly(newer, older);
+    }
+
+    @Test
+    void mergeAppliesSkipAndLimitAfterOrdering() {
+        Post a = post(1L, 50);
+        Post b = post(2L, 40);
+        Post c = post(3L, 30);
+
+        List<Post> merged = FeedMerger.merge(List.of(List.of(a, c), List.of(b)), 1, 1);
+
+        assertThat(merged).containsExactly(b);
+    }
+
+    private Post post(Long id, long secondsOffset) {
+        return Post.builder().id(id).createdAt(now.plusSeconds(secondsOffset)).build();
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.fakebook.service;
+
+import com.example.fakebook.repository.FollowEdge;
+import com.example.fakebook.repository.FollowRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FollowGraphTest {
+
+    @Mock
+    private FollowRepository followRepository;
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private SimpleMeterRegistry meterRegistry;
+    private FollowGraph followGraph;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        followGraph = new FollowGraph(followRepository, meterRegistry);
+    }
+
+    @Test
+    void reloadBuildsSortedAdjacencyInBothDirections() {
+        when(followRepository.streamAllEdges()).thenReturn(Stream.of(
+                edge(1L, 9L), edge(1L, 3L), edge(2L, 3L), edge(1L, 5L)));
+
+        followGraph.reload();
+
+        assertThat(followGraph.getFollowingIds(1L)).containsExactly(3L, 5L, 9L);
+        assertThat(followGraph.isFollowing(2L, 3L)).isTrue();
+        assertThat(followGraph.isFollowing(3L, 2L)).isFalse();
+        assertThat(followGraph.followerCount(3L)).isEqualTo(2);
+        assertThat(followGraph.followingCount(1L)).isEqualTo(3);
+        assertThat(meterRegistry.get("follow.graph.edges").gauge().value()).isEqualTo(4);
+    }
+
+    @Test
+    void addAndRemoveAreIdempotent() {
+        followGraph.addEdge(1L, 2L, NOW);
+        followGraph.addEdge(1L, 2L, NOW);
+        followGraph.addEdge(1L, 4L, NOW);
+
+        assertThat(followGraph.getFollowingIds(1L)).containsExactly(2L, 4L);
+        assertThat(followGraph.followerCount(2L)).isEqualTo(1);
+
+        followGraph.removeEdge(1L, 2L);
+        followGraph.removeEdge(1L, 2L);
+
+        assertThat(followGraph.getFollowingIds(1L)).containsExactly(4L);
+        assertThat(followGraph.followerCount(2L)).isZero();
+    }
+
+    @Test
+    void returnedArraysDoNotExposeInternalState() {
+        followGraph.addEdge(1L, 2L, NOW);
+
+        followGraph.getFollowingIds(1L)[0] = 99L;
+
+        assertThat(followGraph.isFollowing(1L, 2L)).isTrue();
+    }
+
+    @Test
+    void editsMadeWhileReloadingSurviveTheSwap() {
+        when(followRepository.streamAllEdges()).thenAnswer(invocation -> {
+            // Simulate follows committed while the snapshot is being read.
+            followGraph.addEdge(7L, 8L, NOW);
+            followGraph.removeEdge(1L, 2L);
+            return Stream.of(edge(1L, 2L), edge(1L, 3L));
+        });
+
+        followGraph.reload();
+
+        assertThat(followGraph.isFollowing(7L, 8L)).isTrue();
+        assertThat(followGraph.isFollowing(1L, 2L)).isFalse();
+        assertThat(followGraph.isFollowing(1L, 3L)).isTrue();
+    }
+
+    @Test
+    void keepsFollowTimesAlignedWithSortedIds() {
+        followGraph.addEdge(1L, 5L, NOW);
+        followGraph.addEdge(1L, 2L, NOW.plusSeconds(120));
+        followGraph.addEdge(1L, 9L, NOW.plusSeconds(240));
+        followGraph.removeEdge(1L, 5L);
+        List<String> visited = new ArrayList<>();
+
+        followGraph.forEachFollowing(1L, (id, minute) -> visited.add(id + "@" + (minute - FollowGraph.toMinutes(NOW))));
+
+        assertThat(visited).containsExactly("2@2", "9@4");
+    }
+
+    @Test
+    void manyEditsOfOnePopularAccountStayConsistentAcrossCompactions() {
+        when(followRepository.streamAllEdges()).thenReturn(LongStream.rangeClosed(1, 5_000)
+                .filter(follower -> follower % 2 == 0)
+                .mapToObj(follower -> edge(follower, 1L)));
+        followGraph.reload();
+
+        for (long follower = 1; follower <= 5_000; follower += 2) {
+            followGraph.addEdge(follower, 1L, NOW);
+        }
+        for (long follower = 1; follower <= 5_000; follower += 3) {
+            followGraph.removeEdge(follower, 1L);
+        }
+        followGraph.addEdge(4L, 1L, NOW);
+
+        long expected = LongStream.rangeClosed(1, 5_000).filter(follower -> follower % 3 != 1 || follower == 4).count();
+        assertThat(followGraph.followerCount(1L)).isEqualTo(expected);
+        assertThat(followGraph.isFollowing(4L, 1L)).isTrue();
+        assertThat(followGraph.isFollowing(7L, 1L)).isFalse();
+        assertThat(followGraph.isFollowing(8L, 1L)).isTrue();
+        assertThat(followGraph.findUsersWithFollowerCountAtLeast(expected)).containsExactly(1L);
+    }
+
+    @Test
+    void concurrentFollowsKeepBothDirectionsInStep() throws Exception {
+        int threads = 8;
+        int followersPerThread = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long firstFollower = 10L + (long) t * followersPerThread;
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (long follower = firstFollower; follower < firstFollower + followersPerThread; follower++) {
+                    followGraph.addEdge(follower, 1L, NOW);
+                    followGraph.addEdge(follower, 2L, NOW);
+                    followGraph.removeEdge(follower, 2L);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        executor.shutdown();
+
+        assertThat(followGraph.followerCount(1L)).isEqualTo(threads * followersPerThread);
+        assertThat(followGraph.followerCount(2L)).isZero();
+        assertThat(followGraph.edgeCount()).isEqualTo(threads * followersPerThread);
+    }
+
+    @Test
+    void addEdgesMergesBatchesAndKeepsExistingFollowTimes() {
+        followGraph.addEdge(3L, 1L, NOW);
+        followGraph.addEdge(5L, 1L, NOW);
+        followGraph.removeEdge(5L, 1L);
+        Instant later = NOW.plusSeconds(600);
+
+        followGraph.addEdges(List.of(new FollowEdge(4L, 1L, later), new FollowEdge(3L, 1L, later),
+                new FollowEdge(2L, 1L, later), new FollowEdge(3L, 9L, later)));
+
+        assertThat(followGraph.followerCount(1L)).isEqualTo(3);
+        assertThat(followGraph.isFollowing(5L, 1L)).isFalse();
+        assertThat(followGraph.getFollowingIds(3L)).containsExactly(1L, 9L);
+        List<String> visited = new ArrayList<>();
+        followGraph.forEachFollowing(3L, (id, minute) -> visited.add(id + "@" + (minute - FollowGraph.toMinutes(NOW))));
+        assertThat(visited).containsExactly("1@0", "9@10");
+    }
+
+    @Test
+    void addEdgesMadeWhileReloadingSurviveTheSwap() {
+        when(followRepository.streamAllEdges()).thenAnswer(invocation -> {
+            followGraph.addEdges(List.of(new FollowEdge(7L, 8L, NOW), new FollowEdge(6L, 8L, NOW)));
+            return Stream.of(edge(1L, 8L));
+        });
+
+        followGraph.reload();
+
+        assertThat(followGraph.followerCount(8L)).isEqualTo(3);
+    }
+
+    @Test
+    void filtersCandidatesAndFindsPopularUsers() {
+        followGraph.addEdge(1L, 10L, NOW);
+        followGraph.addEdge(2L, 10L, NOW);
+        followGraph.addEdge(1L, 11L, NOW);
+
+        assertThat(followGraph.filterFollowing(2L, List.of(10L, 11L))).containsExactly(10L);
+        assertThat(followGraph.findUsersWithFollowerCountAtLeast(2)).containsExactly(10L);
+    }
+
+    @Test
+    void reportsFootprintPerMillionEdges() {
+        // 1,000 users following 100 accounts each: twenty bytes per edge plus per-list overhead.
+        when(followRepository.streamAllEdges()).thenReturn(LongStream.rangeClosed(1, 1_000)
+                .boxed()
+                .flatMap(follower -> LongStream.rangeClosed(1, 100)
+                        .mapToObj(offset -> edge(follower, 10_000 + offset))));
+
+        followGraph.reload();
+
+        assertThat(followGraph.edgeCount()).isEqualTo(100_000);
+        assertThat(followGraph.bytesPerMillionEdges()).isBetween(20_000_000L, 22_000_000L);
+        assertThat(meterRegistry.get("follow.graph.memory").gauge().value())
+                .isEqualTo((double) followGraph.estimatedBytes());
+    }
+
+    private static FollowEdge edge(long followerId, long followingId) {
+        return new FollowEdge(followerId, followingId, NOW);
+    }
+}
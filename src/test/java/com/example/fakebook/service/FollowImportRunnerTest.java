@@ -0,0 +1,52 @@
+package com.example.fakebook.service;
+
+import com.example.fakebook.dto.user.BulkFollowResponse;
+import com.example.fakebook.entity.FollowId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FollowImportRunnerTest {
+
+    @Mock
+    private FollowImportService followImportService;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void importsParsedPairsAndReportsSuccess() throws IOException {
+        Path file = Files.writeString(directory.resolve("follows.csv"), "1,2\nnot a pair\n3, 4\n");
+        when(followImportService.importPairs(any())).thenReturn(new BulkFollowResponse(2, 2, 2, 1, 2));
+        FollowImportRunner runner = new FollowImportRunner(followImportService, file);
+
+        runner.run();
+
+        verify(followImportService).importPairs(List.of(new FollowId(1L, 2L), new FollowId(3L, 4L)));
+        assertThat(runner.getExitCode()).isZero();
+    }
+
+    @Test
+    void missingFileReportsFailureInsteadOfExiting() {
+        FollowImportRunner runner = new FollowImportRunner(followImportService, directory.resolve("missing.csv"));
+
+        runner.run();
+
+        verifyNoInteractions(followImportService);
+        assertThat(runner.getExitCode()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.fakebook.service;
+
+import com.example.fakebook.dto.user.BulkFollowResponse;
+import com.example.fakebook.entity.FollowId;
+import com.example.fakebook.entity.User;
+import com.example.fakebook.repository.FollowRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FollowImportServiceTest {
+
+    @Mock
+    private FollowRepository followRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private TimelineService timelineService;
+    @Mock
+    private SuggestionService suggestionService;
+
+    private FollowGraph followGraph;
+    private FollowImportService followImportService;
+
+    @BeforeEach
+    void setUp() {
+        followGraph = new FollowGraph(followRepository, new SimpleMeterRegistry());
+        followImportService = new FollowImportService(jdbcTemplate, transactionTemplate, timelineService,
+                followGraph, suggestionService, 500, 2);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void followAllDropsSelfFollowsAndDuplicatesAndCountsOnlyInsertedRows() {
+        User user = User.builder().id(1L).build();
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT"), anyCollection(), eq(500),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][]{{1, 0}})
+                .thenReturn(new int[][]{{1}});
+
+        BulkFollowResponse response = followImportService.followAll(user, List.of(3L, 1L, 2L, 3L, 4L));
+
+        assertThat(response.getRequested()).isEqualTo(5);
+        assertThat(response.getAccepted()).isEqualTo(3);
+        assertThat(response.getFollowed()).isEqualTo(2);
+        ArgumentCaptor<Collection<FollowId>> chunks = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(startsWith("INSERT"), chunks.capture(), eq(500),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertThat(chunks.getAllValues().get(0)).containsExactly(new FollowId(1L, 2L), new FollowId(1L, 3L));
+        verify(timelineService).backfill(1L, List.of(2L));
+        verify(timelineService).backfill(1L, List.of(4L));
+        assertThat(followGraph.isFollowing(1L, 2L)).isTrue();
+        assertThat(followGraph.isFollowing(1L, 3L)).isFalse();
+        assertThat(followGraph.isFollowing(1L, 4L)).isTrue();
+        verify(suggestionService, times(2)).markChanged(1L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importPairsSkipsCounterUpdatesWhenNothingWasInserted() {
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT"), anyCollection(), eq(500),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][]{{0}});
+
+        BulkFollowResponse response = followImportService.importPairs(List.of(new FollowId(5L, 6L)));
+
+        assertThat(response.getFollowed()).isZero();
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("UPDATE"), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        verifyNoInteractions(timelineService, suggestionService);
+    }
+}
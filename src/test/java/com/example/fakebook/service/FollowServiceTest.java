@@ -1,28 +1,34 @@
 package com.example.fakebook.service;
 
+import com.example.fakebook.dto.common.Cursor;
+import com.example.fakebook.dto.common.CursorPage;
 import com.example.fakebook.dto.user.FollowResponse;
-import com.example.fakebook.entity.Follow;
+import com.example.fakebook.dto.user.RelationshipResponse;
 import com.example.fakebook.entity.FollowId;
 import com.example.fakebook.entity.User;
 import com.example.fakebook.exception.BadRequestException;
 import com.example.fakebook.exception.ResourceNotFoundException;
 import com.example.fakebook.mapper.UserMapper;
+import com.example.fakebook.repository.FollowEdgeView;
 import com.example.fakebook.repository.FollowRepository;
 import com.example.fakebook.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,9 +39,14 @@ class FollowServiceTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private TimelineService timelineService;
+    @Mock
+    private FollowGraph followGraph;
+    @Mock
+    private SuggestionService suggestionService;
+    @Mock
     private UserMapper userMapper;
 
-    @InjectMocks
     private FollowService followService;
 
     private User follower;
@@ -43,6 +54,8 @@ class FollowServiceTest {
 
     @BeforeEach
     void setUp() {
+        followService = new FollowService(followRepository, userRepository, timelineService, followGraph,
+                suggestionService, userMapper, 50, 200, 3);
         follower = User.builder().id(1L).username("alice").build();
         following = User.builder().id(2L).username("bob").build();
     }
@@ -59,31 +72,52 @@ class FollowServiceTest {
     @Test
     void followUserRejectsDuplicateFollow() {
         when(userRepository.findById(following.getId())).thenReturn(Optional.of(following));
-        when(followRepository.existsByFollowerAndFollowing(follower, following)).thenReturn(true);
+        when(followRepository.insertIfAbsent(eq(1L), eq(2L), any())).thenReturn(0);
 
         assertThatThrownBy(() -> followService.followUser(follower, following.getId()))
                 .isInstanceOf(BadRequestException.class)
                 .hasMessageContaining("Already following");
 
-        verify(userRepository).findById(following.getId());
-        verify(followRepository).existsByFollowerAndFollowing(follower, following);
-        verify(followRepository, never()).save(any(Follow.class));
+        verify(userRepository, never()).adjustFollowCounts(any(), any(), anyInt());
+        verifyNoInteractions(timelineService, followGraph);
     }
 
     @Test
     void followUserPersistsWhenValid() {
         when(userRepository.findById(following.getId())).thenReturn(Optional.of(following));
-        when(followRepository.existsByFollowerAndFollowing(follower, following)).thenReturn(false);
+        when(followRepository.insertIfAbsent(eq(1L), eq(2L), any())).thenReturn(1);
 
         followService.followUser(follower, following.getId());
 
-        ArgumentCaptor<Follow> followCaptor = ArgumentCaptor.forClass(Follow.class);
-        verify(followRepository).save(followCaptor.capture());
-        Follow savedFollow = followCaptor.getValue();
+        ArgumentCaptor<Instant> followedAt = ArgumentCaptor.forClass(Instant.class);
+        verify(followRepository).insertIfAbsent(eq(1L), eq(2L), followedAt.capture());
+        verify(userRepository).adjustFollowCounts(1L, 2L, 1);
+        verify(timelineService).backfill(follower, following);
+        verify(followGraph).addEdge(1L, 2L, followedAt.getValue());
+        verify(suggestionService).markChanged(1L);
+    }
+
+    @Test
+    void unfollowUserPrunesTimelineAndDecrementsCounts() {
+        when(userRepository.findById(following.getId())).thenReturn(Optional.of(following));
+        when(followRepository.deleteByFollowerIdAndFollowingId(1L, 2L)).thenReturn(1);
+
+        followService.unfollowUser(follower, following.getId());
+
+        verify(userRepository).adjustFollowCounts(1L, 2L, -1);
+        verify(timelineService).prune(follower, following);
+        verify(followGraph).removeEdge(1L, 2L);
+        verify(suggestionService).markChanged(1L);
+    }
+
+    @Test
+    void unfollowUserLeavesCountsWhenNotFollowing() {
+        when(userRepository.findById(following.getId())).thenReturn(Optional.of(following));
+        when(followRepository.deleteByFollowerIdAndFollowingId(1L, 2L)).thenReturn(0);
+
+        followService.unfollowUser(follower, following.getId());
 
-        assertThat(savedFollow.getFollower()).isEqualTo(follower);
-        assertThat(savedFollow.getFollowing()).isEqualTo(following);
-        assertThat(savedFollow.getId()).isEqualTo(new FollowId(follower.getId(), following.getId()));
+        verify(userRepository, never()).adjustFollowCounts(any(), any(), anyInt());
     }
 
     @Test
@@ -99,63 +133,79 @@ class FollowServiceTest {
     }
 
     @Test
-    void getFollowersResolvesAndMapsResponses() {
-        User followerTwo = User.builder().id(3L).username("carol").build();
-        Follow followOne = Follow.builder()
-                .id(new FollowId(follower.getId(), following.getId()))
-                .follower(follower)
-                .following(following)
-                .build();
-        Follow followTwo = Follow.builder()
-                .id(new FollowId(followerTwo.getId(), following.getId()))
-                .follower(followerTwo)
-                .following(following)
-                .build();
-        FollowResponse responseOne = new FollowResponse();
-        FollowResponse responseTwo = new FollowResponse();
-        when(userRepository.findById(following.getId())).thenReturn(Optional.of(following));
-        when(followRepository.findAllByFollowing(following)).thenReturn(List.of(followOne, followTwo));
-        when(userMapper.toFollowResponse(follower)).thenReturn(responseOne);
-        when(userMapper.toFollowResponse(followerTwo)).thenReturn(responseTwo);
+    void getFollowersReturnsFirstPageWithCursorToNextFollow() {
+        Instant now = Instant.now();
+        FollowEdgeView newest = edge(3L, now);
+        FollowEdgeView middle = edge(4L, now.minusSeconds(5));
+        FollowEdgeView oldest = edge(5L, now.minusSeconds(10));
+        FollowResponse first = new FollowResponse();
+        FollowResponse second = new FollowResponse();
+        when(followRepository.findFollowers(2L, PageRequest.of(0, 3))).thenReturn(List.of(newest, middle, oldest));
+        when(userMapper.toFollowResponse(newest)).thenReturn(first);
+        when(userMapper.toFollowResponse(middle)).thenReturn(second);
+
+        CursorPage<FollowResponse> page = followService.getFollowers(2L, null, 2);
+
+        assertThat(page.getContent()).containsExactly(first, second);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(Cursor.decode(page.getNextCursor())).isEqualTo(new Cursor(middle.getFollowedAt(), 4L));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void getFollowingSeeksPastCursor() {
+        Instant followedAt = Instant.now();
+        String cursor = new Cursor(followedAt, 9L).encode();
+        FollowEdgeView next = edge(8L, followedAt);
+        FollowResponse response = new FollowResponse();
+        when(followRepository.findFollowingBefore(1L, followedAt, 9L, PageRequest.of(0, 51))).thenReturn(List.of(next));
+        when(userMapper.toFollowResponse(next)).thenReturn(response);
 
-        List<FollowResponse> responses = followService.getFollowers(following.getId());
+        CursorPage<FollowResponse> page = followService.getFollowing(1L, cursor, null);
 
-        assertThat(responses).containsExactly(responseOne, responseTwo);
-        verify(userRepository).findById(following.getId());
-        verify(followRepository).findAllByFollowing(following);
-        verify(userMapper).toFollowResponse(follower);
-        verify(userMapper).toFollowResponse(followerTwo);
+        assertThat(page.getContent()).containsExactly(response);
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
     }
 
     @Test
     void getFollowersThrowsWhenUserMissing() {
-        when(userRepository.findById(following.getId())).thenReturn(Optional.empty());
+        when(followRepository.findFollowers(2L, PageRequest.of(0, 51))).thenReturn(List.of());
+        when(userRepository.existsById(2L)).thenReturn(false);
 
-        assertThatThrownBy(() -> followService.getFollowers(following.getId()))
+        assertThatThrownBy(() -> followService.getFollowers(2L, null, null))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("User not found");
 
-        verify(userRepository).findById(following.getId());
-        verifyNoMoreInteractions(followRepository, userMapper);
+        verifyNoInteractions(userMapper);
+    }
+
+    private FollowEdgeView edge(Long id, Instant followedAt) {
+        FollowEdgeView edge = mock(FollowEdgeView.class);
+        lenient().when(edge.getId()).thenReturn(id);
+        lenient().when(edge.getFollowedAt()).thenReturn(followedAt);
+        return edge;
     }
 
     @Test
-    void getFollowingResolvesAndMapsResponses() {
-        Follow followOne = Follow.builder()
-                .id(new FollowId(follower.getId(), following.getId()))
-                .follower(follower)
-                .following(following)
-                .build();
-        FollowResponse response = new FollowResponse();
-        when(userRepository.findById(follower.getId())).thenReturn(Optional.of(follower));
-        when(followRepository.findAllByFollower(follower)).thenReturn(List.of(followOne));
-        when(userMapper.toFollowResponse(following)).thenReturn(response);
+    void getRelationshipsResolvesBothDirectionsInOneQuery() {
+        when(followRepository.findEdgesBetween(eq(1L), any()))
+                .thenReturn(List.of(new FollowId(1L, 2L), new FollowId(2L, 1L), new FollowId(4L, 1L)));
+
+        List<RelationshipResponse> relationships = followService.getRelationships(follower, List.of(2L, 3L, 4L, 2L));
 
-        List<FollowResponse> responses = followService.getFollowing(follower.getId());
+        assertThat(relationships).containsExactly(
+                new RelationshipResponse(2L, true, true, true),
+                new RelationshipResponse(3L, false, false, false),
+                new RelationshipResponse(4L, false, true, false));
+        verify(followRepository, times(1)).findEdgesBetween(any(), any());
+    }
+
+    @Test
+    void getRelationshipsRejectsTooManyIds() {
+        assertThatThrownBy(() -> followService.getRelationships(follower, List.of(2L, 3L, 4L, 5L)))
+                .isInstanceOf(BadRequestException.class);
 
-        assertThat(responses).containsExactly(response);
-        verify(userRepository).findById(follower.getId());
-        verify(followRepository).findAllByFollower(follower);
-        verify(userMapper).toFollowResponse(following);
+        verifyNoInteractions(followRepository);
     }
 }
@@ -0,0 +1,104 @@
+package com.example.fakebook.service;
+
+import com.example.fakebook.repository.PostRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LikeCountReconcilerTest {
+
+    @Mock
+    private PostRepository postRepository;
+    @Mock
+    private LikeCounterBuffer likeCounterBuffer;
+    @Captor
+    private ArgumentCaptor<Collection<Long>> excludedIds;
+
+    @Test
+    void reconcileWalksIdRangeInChunks() {
+        LikeCountReconciler reconciler = new LikeCountReconciler(postRepository, likeCounterBuffer, 100);
+        when(likeCounterBuffer.watch()).thenReturn(new HashSet<>());
+        when(postRepository.findMaxId()).thenReturn(250L);
+        when(likeCounterBuffer.busyPostIds()).thenReturn(Set.of());
+        when(postRepository.reconcileLikeCounts(eq(1L), eq(100L), any())).thenReturn(2);
+        when(postRepository.reconcileLikeCounts(eq(101L), eq(200L), any())).thenReturn(0);
+        when(postRepository.reconcileLikeCounts(eq(201L), eq(300L), any())).thenReturn(1);
+
+        long repaired = reconciler.reconcile();
+
+        assertThat(repaired).isEqualTo(3);
+        verify(likeCounterBuffer).flush();
+        verify(postRepository, times(3)).reconcileLikeCounts(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void reconcileLeavesPostsWithPendingDeltasAlone() {
+        LikeCountReconciler reconciler = new LikeCountReconciler(postRepository, likeCounterBuffer, 100);
+        when(postRepository.findMaxId()).thenReturn(50L);
+        when(likeCounterBuffer.watch()).thenReturn(new HashSet<>());
+        when(likeCounterBuffer.busyPostIds()).thenReturn(Set.of(7L));
+
+        reconciler.reconcile();
+
+        verify(postRepository).reconcileLikeCounts(1L, 100L, Set.of(7L));
+    }
+
+    @Test
+    void reconcileExcludesOnlyBusyPostsInsideEachChunk() {
+        LikeCountReconciler reconciler = new LikeCountReconciler(postRepository, likeCounterBuffer, 100);
+        when(postRepository.findMaxId()).thenReturn(200L);
+        when(likeCounterBuffer.watch()).thenReturn(new HashSet<>());
+        when(likeCounterBuffer.busyPostIds()).thenReturn(Set.of(7L, 150L, 5_000L));
+
+        reconciler.reconcile();
+
+        verify(postRepository).reconcileLikeCounts(eq(1L), eq(100L), excludedIds.capture());
+        verify(postRepository).reconcileLikeCounts(eq(101L), eq(200L), excludedIds.capture());
+        assertThat(excludedIds.getAllValues()).containsExactly(Set.of(7L), Set.of(150L));
+    }
+
+    @Test
+    void reconcileRecountsPostsLikedDuringChunkUpdateOnceTheirDeltaIsFlushed() {
+        LikeCountReconciler reconciler = new LikeCountReconciler(postRepository, likeCounterBuffer, 100);
+        when(postRepository.findMaxId()).thenReturn(50L);
+        Set<Long> touchedDuringChunk = new HashSet<>();
+        when(likeCounterBuffer.watch()).thenReturn(touchedDuringChunk).thenReturn(new HashSet<>());
+        when(likeCounterBuffer.busyPostIds()).thenReturn(Set.of());
+        when(postRepository.reconcileLikeCounts(1L, 100L, Set.of(0L))).thenAnswer(invocation -> {
+            touchedDuringChunk.add(9L);
+            return 1;
+        });
+
+        long repaired = reconciler.reconcile();
+
+        assertThat(repaired).isEqualTo(1);
+        var order = inOrder(likeCounterBuffer, postRepository);
+        order.verify(postRepository).reconcileLikeCounts(1L, 100L, Set.of(0L));
+        order.verify(likeCounterBuffer).flush();
+        order.verify(postRepository).reconcileLikeCounts(9L, 9L, Set.of(0L));
+        verify(likeCounterBuffer, times(2)).stopWatching();
+    }
+
+    @Test
+    void reconcileSkipsWhenThereAreNoPosts() {
+        LikeCountReconciler reconciler = new LikeCountReconciler(postRepository, likeCounterBuffer, 100);
+        when(postRepository.findMaxId()).thenReturn(null);
+
+        assertThat(reconciler.reconcile()).isZero();
+        verify(postRepository, never()).reconcileLikeCounts(anyLong(), anyLong(), any());
+    }
+}
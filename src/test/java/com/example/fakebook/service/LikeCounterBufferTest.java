@@ -0,0 +1,130 @@
+package com.example.fakebook.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LikeCounterBufferTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void flushWritesNetDeltaPerPostAndClearsPending() {
+        LikeCounterBuffer buffer = new LikeCounterBuffer(jdbcTemplate, 100);
+        Map<Long, Long> flushed = captureFlushes();
+        buffer.add(1L, 1);
+        buffer.add(1L, 1);
+        buffer.add(2L, 1);
+        buffer.add(2L, -1);
+
+        int updated = buffer.flush();
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(flushed).containsExactly(Map.entry(1L, 2L));
+        assertThat(buffer.pendingDelta(1L)).isZero();
+        assertThat(buffer.pendingPostIds()).isEmpty();
+    }
+
+    @Test
+    void likeInProgressKeepsPostBusyUntilItsTransactionCompletes() {
+        LikeCounterBuffer buffer = new LikeCounterBuffer(jdbcTemplate, 100);
+        Set<Long> touched = buffer.watch();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            buffer.begin(5L);
+
+            assertThat(buffer.busyPostIds()).containsExactly(5L);
+            assertThat(buffer.pendingPostIds()).isEmpty();
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        buffer.stopWatching();
+        buffer.begin(6L);
+
+        assertThat(buffer.busyPostIds()).isEmpty();
+        assertThat(touched).containsExactly(5L);
+    }
+
+    @Test
+    void flushKeepsDeltasWhenDatabaseWriteFails() {
+        LikeCounterBuffer buffer = new LikeCounterBuffer(jdbcTemplate, 100);
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any()))
+                .thenThrow(new IllegalStateException("down"));
+        buffer.add(3L, 4);
+
+        assertThatThrownBy(buffer::flush).isInstanceOf(IllegalStateException.class);
+        assertThat(buffer.pendingDelta(3L)).isEqualTo(4);
+    }
+
+    @Test
+    void concurrentLikesAreNeitherLostNorDoubleCountedAcrossFlushes() throws Exception {
+        LikeCounterBuffer buffer = new LikeCounterBuffer(jdbcTemplate, 100);
+        Map<Long, Long> flushed = captureFlushes();
+        int threads = 8;
+        int likesPerThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < likesPerThread; i++) {
+                    buffer.add((long) (i % 4), 1);
+                }
+                return null;
+            });
+        }
+        Thread flusher = new Thread(() -> {
+            while (writing.get()) {
+                buffer.flush();
+            }
+        });
+        flusher.start();
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        writing.set(false);
+        flusher.join();
+        buffer.flush();
+
+        long total = flushed.values().stream().mapToLong(Long::longValue).sum();
+        assertThat(total).isEqualTo((long) threads * likesPerThread);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Long> captureFlushes() {
+        Map<Long, Long> flushed = new ConcurrentHashMap<>();
+        lenient().when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any()))
+                .thenAnswer(invocation -> {
+                    Collection<Map.Entry<Long, Long>> updates = invocation.getArgument(1);
+                    updates.forEach(update -> flushed.merge(update.getKey(), update.getValue(), Long::sum));
+                    return new int[0][];
+                });
+        return flushed;
+    }
+}
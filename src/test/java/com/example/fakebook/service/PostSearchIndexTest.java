@@ -0,0 +1,171 @@
+package com.example.fakebook.service;
+
+import com.example.fakebook.repository.PostRepository;
+import com.example.fakebook.repository.PostText;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostSearchIndexTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    private PostSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PostSearchIndex(postRepository, new SimpleMeterRegistry(), 2, 5);
+    }
+
+    @Test
+    void tokenizerLowercasesAndDropsStopWordsAndShortTokens() {
+        assertThat(PostSearchIndex.tokenize("The Quick, brown-fox: a B2B deal!"))
+                .containsExactly("quick", "brown", "fox", "b2b", "deal");
+        assertThat(PostSearchIndex.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void searchRanksPostsMatchingMoreTermsFirst() {
+        index.add(1L, "Coffee at the beach");
+        index.add(2L, "Morning coffee with fresh croissants");
+        index.add(3L, "Beach volleyball and coffee after sunset");
+        index.add(4L, "Nothing relevant here");
+
+        PostSearchIndex.Hits hits = index.search("beach coffee", 0, 10);
+
+        assertThat(hits.total()).isEqualTo(3);
+        assertThat(hits.postIds()).containsExactly(1L, 3L, 2L);
+        assertThat(index.search("sunset", 0, 10).postIds()).containsExactly(3L);
+        assertThat(index.search("the", 0, 10).postIds()).isEmpty();
+    }
+
+    @Test
+    void searchPagesThroughResultsUpToMaximum() {
+        LongStream.rangeClosed(1, 8).forEach(id -> index.add(id, "daily update"));
+
+        assertThat(index.search("update", 0, 2).postIds()).containsExactly(8L, 7L);
+        assertThat(index.search("update", 2, 2).postIds()).containsExactly(6L, 5L);
+        assertThat(index.search("update", 4, 2).postIds()).containsExactly(4L);
+        assertThat(index.search("update", 6, 2).postIds()).isEmpty();
+        assertThat(index.search("update", 0, 2).total()).isEqualTo(5);
+    }
+
+    @Test
+    void postIdsBeyondIntRangeAreIndexedAndRemoved() {
+        long large = Integer.MAX_VALUE + 10L;
+        index.add(7L, "small kitten");
+        index.add(large, "large kitten");
+        index.add(large + (1L << 32), "larger kitten");
+
+        assertThat(index.search("kitten", 0, 10).postIds()).containsExactly(large + (1L << 32), large, 7L);
+
+        index.remove(large, "large kitten");
+
+        assertThat(index.search("kitten", 0, 10).postIds()).containsExactly(large + (1L << 32), 7L);
+    }
+
+    @Test
+    void readdingARemovedPostIndexesItsNewContent() {
+        index.add(1L, "hello world");
+        index.remove(1L, "hello world");
+        index.add(1L, "goodbye world");
+
+        assertThat(index.search("hello", 0, 10).postIds()).isEmpty();
+        assertThat(index.search("goodbye", 0, 10).postIds()).containsExactly(1L);
+        assertThat(index.search("world", 0, 10).postIds()).containsExactly(1L);
+    }
+
+    @Test
+    void removedPostsAreNoLongerReturned() {
+        index.add(1L, "hello world");
+        index.add(2L, "hello again");
+
+        index.remove(1L, "hello world");
+
+        assertThat(index.search("hello", 0, 10).postIds()).containsExactly(2L);
+        assertThat(index.search("world", 0, 10).total()).isZero();
+    }
+
+    @Test
+    void addingTheSamePostTwiceIndexesItOnce() {
+        index.add(1L, "hello hello");
+        index.add(1L, "hello hello");
+
+        assertThat(index.search("hello", 0, 10).postIds()).containsExactly(1L);
+    }
+
+    @Test
+    void postsIndexedOutOfIdOrderAreAllFoundOnce() {
+        List<Long> ids = new ArrayList<>(LongStream.rangeClosed(1, 1_000).boxed().toList());
+        Collections.shuffle(ids, new Random(42));
+        ids.forEach(id -> index.add(id, "daily update"));
+        ids.subList(0, 100).forEach(id -> index.add(id, "daily update"));
+
+        PostSearchIndex.Hits hits = index.search("update", 0, 5);
+
+        assertThat(hits.total()).isEqualTo(5);
+        assertThat(hits.postIds()).containsExactly(1_000L, 999L, 998L, 997L, 996L);
+    }
+
+    @Test
+    void lateCommitsInterleavedWithNewerPostsKeepTheirOwnScores() {
+        PostSearchIndex wide = new PostSearchIndex(postRepository, new SimpleMeterRegistry(), 2, 1_000);
+        for (long id = 2; id <= 400; id += 2) {
+            wide.add(id, "coffee");
+            wide.add(id - 1, "coffee coffee coffee beach");
+        }
+
+        assertThat(wide.search("beach", 0, 500).total()).isEqualTo(200);
+        assertThat(wide.search("coffee", 0, 500).total()).isEqualTo(400);
+        assertThat(wide.search("coffee", 0, 1).postIds()).containsExactly(399L);
+    }
+
+    @Test
+    void rebuildReadsPostsInKeysetChunks() {
+        when(postRepository.findTextsAfter(0L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(new PostText(3L, "first kitten"), new PostText(9L, "second kitten")));
+        when(postRepository.findTextsAfter(9L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(new PostText(12L, "puppy")));
+
+        index.rebuild();
+
+        assertThat(index.search("kitten", 0, 10).postIds()).containsExactly(9L, 3L);
+        assertThat(index.search("puppy", 0, 10).postIds()).containsExactly(12L);
+        verify(postRepository).findTextsAfter(eq(9L), eq(PageRequest.of(0, 2)));
+    }
+
+    @Test
+    void changesDuringRebuildAreReplayedOntoNewIndex() {
+        index.add(5L, "stale kitten");
+        when(postRepository.findTextsAfter(anyLong(), eq(PageRequest.of(0, 2)))).thenAnswer(invocation -> {
+            if ((long) invocation.getArgument(0) > 0) {
+                return List.of();
+            }
+            index.add(7L, "fresh kitten");
+            index.remove(5L, "stale kitten");
+            return List.of(new PostText(5L, "stale kitten"), new PostText(6L, "older kitten"));
+        });
+
+        index.rebuild();
+
+        assertThat(index.search("kitten", 0, 10).postIds()).containsExactly(7L, 6L);
+    }
+}
@@ -1,32 +1,38 @@
 package com.example.fakebook.service;
 
+import com.example.fakebook.dto.comment.CommentResponse;
+import com.example.fakebook.dto.common.Cursor;
+import com.example.fakebook.dto.common.CursorPage;
+import com.example.fakebook.dto.post.LikeResponse;
 import com.example.fakebook.dto.post.PostRequest;
 import com.example.fakebook.dto.post.PostResponse;
 import com.example.fakebook.entity.*;
 import com.example.fakebook.exception.BadRequestException;
 import com.example.fakebook.exception.ResourceNotFoundException;
+import com.example.fakebook.mapper.CommentMapper;
 import com.example.fakebook.mapper.PostMapper;
-import com.example.fakebook.repository.FollowRepository;
+import com.example.fakebook.repository.CommentRepository;
+import com.example.fakebook.repository.PostCommentCount;
 import com.example.fakebook.repository.PostLikeRepository;
 import com.example.fakebook.repository.PostRepository;
 import com.example.fakebook.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,11 +45,18 @@ class PostServiceTest {
     @Mock
     private PostLikeRepository postLikeRepository;
     @Mock
-    private FollowRepository followRepository;
+    private TimelineService timelineService;
+    @Mock
+    private LikeCounterBuffer likeCounterBuffer;
+    @Mock
+    private CommentRepository commentRepository;
     @Mock
     private PostMapper postMapper;
+    @Mock
+    private CommentMapper commentMapper;
+    @Mock
+    private PostSearchIndex postSearchIndex;
 
-    @InjectMocks
     private PostService postService;
 
     private User user;
@@ -51,6 +64,8 @@ class PostServiceTest {
 
     @BeforeEach
     void setUp() {
+        postService = new PostService(postRepository, userRepository, postLikeRepository, timelineService,
+                likeCounterBuffer, commentRepository, postMapper, commentMapper, postSearchIndex, 2, 100);
         user = User.builder().id(1L).username("john").build();
         post = Post.builder().id(10L).user(user).content("Hello").build();
     }
@@ -60,37 +75,205 @@ class PostServiceTest {
         PostRequest request = new PostRequest();
         request.setContent("Hello");
         when(postMapper.toEntity(request)).thenReturn(Post.builder().content("Hello").build());
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
         when(postRepository.save(any(Post.class))).thenReturn(post);
         when(postMapper.toResponse(post)).thenReturn(new PostResponse());
-        when(postLikeRepository.countByPost(post)).thenReturn(0L);
 
         PostResponse response = postService.createPost(user, request);
 
-        assertThat(response).isNotNull();
+        assertThat(response.getCommentCount()).isZero();
+        assertThat(response.getLatestComments()).isEmpty();
+        verifyNoInteractions(commentRepository, postLikeRepository);
         verify(postRepository).save(any(Post.class));
+        verify(userRepository).adjustPostCount(1L, 1);
+        verify(timelineService).fanOut(post);
+        verify(postSearchIndex).add(10L, "Hello");
     }
 
     @Test
-    void likePostThrowsWhenAlreadyLiked() {
-        when(postRepository.findById(10L)).thenReturn(Optional.of(post));
-        when(postLikeRepository.existsByPostAndUser(post, user)).thenReturn(true);
+    void likePostIsIdempotentWhenAlreadyLiked() {
+        when(postLikeRepository.insertIfAbsent(1L, 10L)).thenReturn(0);
+        when(postRepository.existsById(10L)).thenReturn(true);
+
+        LikeResponse response = postService.likePost(user, 10L);
+
+        assertThat(response.isLiked()).isTrue();
+        assertThat(response.isChanged()).isFalse();
+        verify(likeCounterBuffer, never()).add(any(), anyLong());
+    }
 
-        assertThatThrownBy(() -> postService.likePost(user, 10L))
-                .isInstanceOf(BadRequestException.class)
-                .hasMessageContaining("already liked");
+    @Test
+    void likePostThrowsWhenPostMissing() {
+        when(postLikeRepository.insertIfAbsent(1L, 99L)).thenReturn(0);
+        when(postRepository.existsById(99L)).thenReturn(false);
+
+        assertThatThrownBy(() -> postService.likePost(user, 99L))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("Post not found");
+    }
+
+    @Test
+    void likePostPropagatesOtherConstraintViolations() {
+        DataIntegrityViolationException userMissing = new DataIntegrityViolationException("fk_user");
+        when(postLikeRepository.insertIfAbsent(1L, 10L)).thenThrow(userMissing);
+
+        assertThatThrownBy(() -> postService.likePost(user, 10L)).isSameAs(userMissing);
+        verify(postRepository, never()).existsById(any());
     }
 
     @Test
-    void getNewsfeedIncludesOwnPostsWhenNoFollows() {
+    void getNewsfeedReadsPrecomputedTimeline() {
         PageRequest pageable = PageRequest.of(0, 10);
-        when(followRepository.findAllByFollower(user)).thenReturn(List.of());
-        when(postRepository.findAllByUserIn(any(), eq(pageable))).thenReturn(new PageImpl<>(List.of(post)));
+        when(timelineService.getTimeline(user, pageable)).thenReturn(new PageImpl<>(List.of(post)));
         when(postMapper.toResponse(post)).thenReturn(new PostResponse());
-        when(postLikeRepository.countByPost(post)).thenReturn(0L);
 
         Page<PostResponse> page = postService.getNewsfeed(user, pageable);
 
         assertThat(page.getTotalElements()).isEqualTo(1);
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    void getUserPostsResolvesLikedByMeForWholePageInOneQuery() {
+        PageRequest pageable = PageRequest.of(0, 10);
+        User viewer = User.builder().id(5L).username("viewer").build();
+        Post second = Post.builder().id(11L).user(user).content("Again").build();
+        PostResponse firstResponse = new PostResponse();
+        PostResponse secondResponse = new PostResponse();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(postRepository.findAllByUser(user, pageable)).thenReturn(new PageImpl<>(List.of(post, second)));
+        when(postLikeRepository.findLikedPostIds(5L, List.of(10L, 11L))).thenReturn(List.of(10L));
+        when(postMapper.toResponse(post)).thenReturn(firstResponse);
+        when(postMapper.toResponse(second)).thenReturn(secondResponse);
+
+        Page<PostResponse> page = postService.getUserPosts(viewer, 1L, pageable);
+
+        assertThat(page.getContent()).containsExactly(firstResponse, secondResponse);
+        assertThat(firstResponse.isLikedByMe()).isTrue();
+        assertThat(secondResponse.isLikedByMe()).isFalse();
+        verify(postLikeRepository, times(1)).findLikedPostIds(any(), any());
+    }
+
+    @Test
+    void getNewsfeedEmbedsCommentCountsAndPreviewsForWholePage() {
+        PageRequest pageable = PageRequest.of(0, 10);
+        Post second = Post.builder().id(11L).user(user).content("Again").build();
+        Comment latest = Comment.builder().id(100L).post(post).user(user).content("Nice").build();
+        PostCommentCount count = mock(PostCommentCount.class);
+        when(count.getPostId()).thenReturn(10L);
+        when(count.getCommentCount()).thenReturn(4L);
+        CommentResponse preview = new CommentResponse();
+        PostResponse firstResponse = new PostResponse();
+        PostResponse secondResponse = new PostResponse();
+        when(timelineService.getTimeline(user, pageable)).thenReturn(new PageImpl<>(List.of(post, second)));
+        when(commentRepository.countByPostIds(List.of(10L, 11L))).thenReturn(List.of(count));
+        when(commentRepository.findLatestByPostIds(List.of(10L, 11L), 2)).thenReturn(List.of(latest));
+        when(commentMapper.toResponse(latest)).thenReturn(preview);
+        when(postMapper.toResponse(post)).thenReturn(firstResponse);
+        when(postMapper.toResponse(second)).thenReturn(secondResponse);
+
+        postService.getNewsfeed(user, pageable);
+
+        assertThat(firstResponse.getCommentCount()).isEqualTo(4);
+        assertThat(firstResponse.getLatestComments()).containsExactly(preview);
+        assertThat(secondResponse.getCommentCount()).isZero();
+        assertThat(secondResponse.getLatestComments()).isEmpty();
+    }
+
+    @Test
+    void getPostAddsPendingLikesToPersistedCount() {
+        post.setLikeCount(5);
+        when(postRepository.findWithUserById(10L)).thenReturn(Optional.of(post));
+        when(postMapper.toResponse(post)).thenReturn(new PostResponse());
+        when(likeCounterBuffer.pendingDelta(10L)).thenReturn(2L);
+
+        PostResponse response = postService.getPost(user, 10L);
+
+        assertThat(response.getLikeCount()).isEqualTo(7);
+    }
+
+    @Test
+    void likePostBuffersCounterIncrementWhenInserted() {
+        when(postLikeRepository.insertIfAbsent(1L, 10L)).thenReturn(1);
+
+        LikeResponse response = postService.likePost(user, 10L);
+
+        assertThat(response.isChanged()).isTrue();
+        var order = inOrder(likeCounterBuffer, postLikeRepository);
+        order.verify(likeCounterBuffer).begin(10L);
+        order.verify(postLikeRepository).insertIfAbsent(1L, 10L);
+        order.verify(likeCounterBuffer).add(10L, 1);
+    }
+
+    @Test
+    void unlikePostDeletesByCompositeIdAndDecrementsOnlyWhenLikeExisted() {
+        when(postLikeRepository.deleteByUserIdAndPostId(1L, 10L)).thenReturn(0);
+
+        LikeResponse response = postService.unlikePost(user, 10L);
+
+        assertThat(response.isLiked()).isFalse();
+        assertThat(response.isChanged()).isFalse();
+        verify(likeCounterBuffer, never()).add(any(), anyLong());
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    void getNewsfeedWithCursorReturnsNextCursorWhenMoreRemain() {
+        Instant now = Instant.now();
+        Post newer = Post.builder().id(12L).user(user).createdAt(now).build();
+        Post older = Post.builder().id(11L).user(user).createdAt(now.minusSeconds(5)).build();
+        when(timelineService.getTimeline(user, null, 2)).thenReturn(List.of(newer, older));
+        when(postMapper.toResponse(any(Post.class))).thenReturn(new PostResponse());
+
+        CursorPage<PostResponse> page = postService.getNewsfeed(user, null, 1);
+
+        assertThat(page.getContent()).hasSize(1);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(Cursor.decode(page.getNextCursor())).isEqualTo(new Cursor(newer.getCreatedAt(), 12L));
+    }
+
+    @Test
+    void getUserPostsWithCursorSeeksPastCursor() {
+        Instant createdAt = Instant.now();
+        String cursor = new Cursor(createdAt, 10L).encode();
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(postRepository.findByUserIdsBefore(List.of(1L), createdAt, 10L, PageRequest.of(0, 21)))
+                .thenReturn(List.of());
+
+        CursorPage<PostResponse> page = postService.getUserPosts(user, 1L, cursor, 20);
+
+        assertThat(page.getContent()).isEmpty();
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void deletePostRemovesTimelineEntries() {
+        when(postRepository.findById(10L)).thenReturn(Optional.of(post));
+
+        postService.deletePost(user, 10L);
+
+        verify(timelineService).remove(post);
+        verify(postRepository).delete(post);
+        verify(userRepository).adjustPostCount(1L, -1);
+        verify(postSearchIndex).remove(10L, "Hello");
+    }
+
+    @Test
+    void searchPostsLoadsHitsInRankOrder() {
+        PageRequest pageable = PageRequest.of(0, 10);
+        Post second = Post.builder().id(11L).user(user).content("Hello again").build();
+        PostResponse firstResponse = new PostResponse();
+        PostResponse secondResponse = new PostResponse();
+        when(postSearchIndex.search("hello", 0, 10)).thenReturn(new PostSearchIndex.Hits(List.of(11L, 10L), 2));
+        when(postRepository.findWithUserByIdIn(List.of(11L, 10L))).thenReturn(List.of(post, second));
+        when(postMapper.toResponse(second)).thenReturn(secondResponse);
+        when(postMapper.toResponse(post)).thenReturn(firstResponse);
+
+        Page<PostResponse> page = postService.searchPosts(user, "hello", pageable);
+
+        assertThat(page.getContent()).containsExactly(secondResponse, firstResponse);
+        assertThat(page.getTotalElements()).isEqualTo(2);
     }
 
     @Test
@@ -105,9 +288,9 @@ class PostServiceTest {
 
     @Test
     void getPostThrowsWhenMissing() {
-        when(postRepository.findById(99L)).thenReturn(Optional.empty());
+        when(postRepository.findWithUserById(99L)).thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> postService.getPost(99L))
+        assertThatThrownBy(() -> postService.getPost(user, 99L))
                 .isInstanceOf(ResourceNotFoundException.class);
     }
 }
@@ -0,0 +1,182 @@
+package com.example.fakebook.service;
+
+import com.example.fakebook.entity.*;
+import com.example.fakebook.mapper.CommentMapperImpl;
+import com.example.fakebook.mapper.PostMapperImpl;
+import com.example.fakebook.mapper.UserMapperImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:readpath;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PostService.class, TimelineService.class, FanoutPolicy.class, FollowGraph.class, LikeCounterBuffer.class,
+        CommentService.class, PostSearchIndex.class, PostMapperImpl.class, CommentMapperImpl.class, UserMapperImpl.class,
+        ReadPathStatementCountTest.MetricsConfig.class})
+class ReadPathStatementCountTest {
+
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private PostService postService;
+    @Autowired
+    private CommentService commentService;
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
+    private Statistics statistics;
+    private User reader;
+    private List<User> authors;
+    private Post firstPost;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        reader = persist(User.builder().username("reader").email("reader@example.com").password("x").build());
+        authors = new ArrayList<>();
+        Instant now = Instant.now();
+        for (int i = 0; i < 3; i++) {
+            User author = persist(User.builder()
+                    .username("author" + i).email("author" + i + "@example.com").password("x").build());
+            authors.add(author);
+            Post post = persist(Post.builder().user(author).content("post " + i).build());
+            if (firstPost == null) {
+                firstPost = post;
+            }
+            persist(TimelineEntry.builder()
+                    .id(new TimelineEntryId(reader.getId(), post.getId()))
+                    .owner(reader)
+                    .post(post)
+                    .authorId(author.getId())
+                    .createdAt(now.minusSeconds(i))
+                    .build());
+            User commenter = persist(User.builder()
+                    .username("commenter" + i).email("commenter" + i + "@example.com").password("x").build());
+            persist(Comment.builder().post(firstPost).user(commenter).content("comment " + i).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void pagedNewsfeedLoadsPostsWithAuthorsAndLikedFlags() {
+        var page = postService.getNewsfeed(reader, PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).hasSize(3)
+                .allSatisfy(post -> assertThat(post.getAuthor().getUsername()).startsWith("author"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+    }
+
+    @Test
+    void cursorNewsfeedLoadsPostsWithAuthorsAndLikedFlags() {
+        var page = postService.getNewsfeed(reader, null, 10);
+
+        assertThat(page.getContent()).hasSize(3)
+                .allSatisfy(post -> assertThat(post.getAuthor().getUsername()).startsWith("author"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+    }
+
+    @Test
+    void newsfeedEmbedsCommentCountsAndLatestComments() {
+        var page = postService.getNewsfeed(reader, null, 10);
+
+        var withComments = page.getContent().stream()
+                .filter(post -> post.getId().equals(firstPost.getId()))
+                .findFirst().orElseThrow();
+        assertThat(withComments.getCommentCount()).isEqualTo(3);
+        assertThat(withComments.getLatestComments()).hasSize(3)
+                .allSatisfy(comment -> assertThat(comment.getAuthor().getUsername()).startsWith("commenter"));
+        assertThat(page.getContent()).filteredOn(post -> !post.getId().equals(firstPost.getId()))
+                .allSatisfy(post -> assertThat(post.getCommentCount()).isZero());
+    }
+
+    @Test
+    void searchLoadsRankedPostsWithAuthors() {
+        postSearchIndex.rebuild();
+        statistics.clear();
+
+        var page = postService.searchPosts(reader, "post", PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).hasSize(3)
+                .allSatisfy(post -> assertThat(post.getAuthor().getUsername()).startsWith("author"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+    }
+
+    @Test
+    void pagedUserPostsLoadsAuthorWithPosts() {
+        var page = postService.getUserPosts(reader, authors.get(0).getId(), PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).singleElement()
+                .satisfies(post -> assertThat(post.getAuthor().getUsername()).isEqualTo("author0"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(5);
+    }
+
+    @Test
+    void cursorUserPostsLoadsAuthorWithPosts() {
+        var page = postService.getUserPosts(reader, authors.get(1).getId(), null, 10);
+
+        assertThat(page.getContent()).singleElement()
+                .satisfies(post -> assertThat(post.getAuthor().getUsername()).isEqualTo("author1"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(5);
+    }
+
+    @Test
+    void singlePostLoadsAuthorInSameStatement() {
+        var post = postService.getPost(reader, firstPost.getId());
+
+        assertThat(post.getAuthor().getUsername()).isEqualTo("author0");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+    }
+
+    @Test
+    void commentPageLoadsAuthorsInSameStatement() {
+        var page = commentService.getComments(firstPost.getId(), null, 10);
+
+        assertThat(page.getContent()).hasSize(3)
+                .allSatisfy(comment -> assertThat(comment.getAuthor().getUsername()).startsWith("commenter"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void fullCommentListLoadsAuthorsInSameStatement() {
+        var comments = commentService.getComments(firstPost.getId());
+
+        assertThat(comments).hasSize(3)
+                .allSatisfy(comment -> assertThat(comment.getAuthor().getUsername()).startsWith("commenter"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.fakebook.service;
+
+import com.example.fakebook.dto.user.SuggestionResponse;
+import com.example.fakebook.entity.User;
+import com.example.fakebook.mapper.UserMapper;
+import com.example.fakebook.repository.FollowRepository;
+import com.example.fakebook.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class SuggestionServiceTest {
+
+    @Mock
+    private FollowRepository followRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private UserMapper userMapper;
+
+    private FollowGraph followGraph;
+    private SuggestionService suggestionService;
+    private final User viewer = User.builder().id(1L).username("viewer").build();
+
+    @BeforeEach
+    void setUp() {
+        followGraph = new FollowGraph(followRepository, new SimpleMeterRegistry());
+        suggestionService = new SuggestionService(followGraph, userRepository, userMapper, 2, 2);
+        lenient().when(userRepository.findAllById(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> User.builder().id(id).username("user" + id).build()).toList();
+        });
+        lenient().when(userMapper.toSuggestionResponse(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            SuggestionResponse response = new SuggestionResponse();
+            response.setId(user.getId());
+            response.setUsername(user.getUsername());
+            return response;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        suggestionService.shutdown();
+    }
+
+    @Test
+    void ranksTwoHopCandidatesByMutualFollowsThenRecency() {
+        Instant now = Instant.now();
+        Instant monthAgo = now.minus(30, ChronoUnit.DAYS);
+        followGraph.addEdge(1L, 2L, now);
+        followGraph.addEdge(1L, 3L, now);
+        followGraph.addEdge(1L, 4L, now);
+        // 10 is followed by two of the viewer's follows; 11 and 12 by one each, 12 more recently.
+        followGraph.addEdge(2L, 10L, monthAgo);
+        followGraph.addEdge(3L, 10L, monthAgo);
+        followGraph.addEdge(2L, 11L, monthAgo);
+        followGraph.addEdge(4L, 12L, now);
+        // Already followed and the viewer themselves are never suggested.
+        followGraph.addEdge(2L, 3L, now);
+        followGraph.addEdge(4L, 1L, now);
+
+        suggestionService.rebuildAll();
+        List<SuggestionResponse> suggestions = suggestionService.getSuggestions(viewer);
+
+        assertThat(suggestions).extracting(SuggestionResponse::getId).containsExactly(10L, 12L);
+        assertThat(suggestions).extracting(SuggestionResponse::getMutualCount).containsExactly(2, 1);
+    }
+
+    @Test
+    void refreshRecomputesOnlyChangedUsers() {
+        Instant now = Instant.now();
+        followGraph.addEdge(1L, 2L, now);
+        followGraph.addEdge(2L, 10L, now);
+        suggestionService.rebuildAll();
+        followGraph.addEdge(2L, 11L, now);
+
+        assertThat(suggestionService.refreshChanged()).isZero();
+        assertThat(suggestionService.getSuggestions(viewer)).extracting(SuggestionResponse::getId).containsExactly(10L);
+
+        followGraph.addEdge(1L, 10L, now);
+        suggestionService.markChanged(1L);
+
+        assertThat(suggestionService.refreshChanged()).isEqualTo(1);
+        assertThat(suggestionService.getSuggestions(viewer)).extracting(SuggestionResponse::getId).containsExactly(11L);
+    }
+
+    @Test
+    void hidesSuggestionsFollowedSinceLastRefresh() {
+        Instant now = Instant.now();
+        followGraph.addEdge(1L, 2L, now);
+        followGraph.addEdge(2L, 10L, now);
+        suggestionService.rebuildAll();
+
+        followGraph.addEdge(1L, 10L, now);
+
+        assertThat(suggestionService.getSuggestions(viewer)).isEmpty();
+    }
+
+    @Test
+    void rebuildScoresManyUsersInParallel() {
+        Instant now = Instant.now();
+        for (long user = 1; user <= 1_000; user++) {
+            followGraph.addEdge(user, user + 1, now);
+            followGraph.addEdge(user, user + 2, now);
+        }
+
+        assertThat(suggestionService.rebuildAll()).isEqualTo(1_000);
+        // 1 -> {2, 3}; 2 -> {3, 4}; 3 -> {4, 5}: 4 has two mutuals, 5 has one.
+        assertThat(suggestionService.getSuggestions(viewer)).extracting(SuggestionResponse::getId)
+                .containsExactly(4L, 5L);
+    }
+
+    @Test
+    void returnsNothingBeforeFirstBuild() {
+        assertThat(suggestionService.getSuggestions(viewer)).isEmpty();
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.fakebook.service;
+
+import com.example.fakebook.dto.common.Cursor;
+import com.example.fakebook.entity.Post;
+import com.example.fakebook.entity.User;
+import com.example.fakebook.repository.FollowRepository;
+import com.example.fakebook.repository.PostRepository;
+import com.example.fakebook.repository.TimelineEntryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TimelineServiceTest {
+
+    private static final int CAPACITY = 50;
+
+    @Mock
+    private TimelineEntryRepository timelineEntryRepository;
+    @Mock
+    private PostRepository postRepository;
+    @Mock
+    private FollowRepository followRepository;
+
+    private FollowGraph followGraph;
+    private FanoutPolicy fanoutPolicy;
+    private SimpleMeterRegistry meterRegistry;
+    private TimelineService timelineService;
+
+    private User author;
+    private User reader;
+    private Post post;
+
+    @BeforeEach
+    void setUp() {
+        fanoutPolicy = new FanoutPolicy(2);
+        meterRegistry = new SimpleMeterRegistry();
+        followGraph = new FollowGraph(followRepository, meterRegistry);
+        timelineService = new TimelineService(timelineEntryRepository, postRepository, followGraph,
+                fanoutPolicy, meterRegistry, CAPACITY);
+        author = User.builder().id(1L).username("alice").build();
+        reader = User.builder().id(2L).username("bob").build();
+        post = Post.builder().id(10L).user(author).content("Hello").createdAt(Instant.now()).build();
+    }
+
+    @Test
+    void fanOutWritesAuthorAndFollowerTimelines() {
+        timelineService.fanOut(post);
+
+        verify(timelineEntryRepository).insertEntry(1L, 10L, 1L, post.getCreatedAt());
+        verify(timelineEntryRepository).fanOutToFollowers(10L, 1L, post.getCreatedAt());
+        assertThat(meterRegistry.get("feed.fanout.duration").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void fanOutSkipsFollowersOfPullAuthors() {
+        fanoutPolicy.setPullAuthorIds(Set.of(1L));
+
+        timelineService.fanOut(post);
+
+        verify(timelineEntryRepository).insertEntry(1L, 10L, 1L, post.getCreatedAt());
+        verify(timelineEntryRepository, never()).fanOutToFollowers(any(), any(), any());
+        assertThat(meterRegistry.get("feed.fanout.skipped").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void backfillCopiesBoundedNumberOfAuthorPosts() {
+        timelineService.backfill(reader, author);
+
+        verify(timelineEntryRepository).backfillFromAuthor(2L, 1L, CAPACITY);
+    }
+
+    @Test
+    void backfillSkipsPullAuthors() {
+        fanoutPolicy.setPullAuthorIds(Set.of(1L));
+
+        timelineService.backfill(reader, author);
+
+        verifyNoInteractions(timelineEntryRepository);
+    }
+
+    @Test
+    void prunePostsOfUnfollowedAuthor() {
+        timelineService.prune(reader, author);
+
+        verify(timelineEntryRepository).deleteByOwnerIdAndAuthorId(2L, 1L);
+    }
+
+    @Test
+    void getTimelineReadsOwnerRangeWhenNoPullAuthorsFollowed() {
+        PageRequest pageable = PageRequest.of(0, 20);
+        when(timelineEntryRepository.findPostsByOwnerId(2L, pageable)).thenReturn(new PageImpl<>(List.of(post)));
+
+        Page<Post> page = timelineService.getTimeline(reader, pageable);
+
+        assertThat(page.getContent()).containsExactly(post);
+        verifyNoInteractions(followRepository, postRepository);
+    }
+
+    @Test
+    void getTimelineMergesPulledAuthorsByCreationTime() {
+        User celebrity = User.builder().id(3L).username("carol").build();
+        Instant now = Instant.now();
+        Post pushedNew = Post.builder().id(20L).user(author).createdAt(now).build();
+        Post pushedOld = Post.builder().id(21L).user(author).createdAt(now.minusSeconds(20)).build();
+        Post pulledMiddle = Post.builder().id(30L).user(celebrity).createdAt(now.minusSeconds(10)).build();
+        fanoutPolicy.setPullAuthorIds(Set.of(3L));
+        PageRequest pageable = PageRequest.of(0, 2);
+        followGraph.addEdge(2L, 3L, Instant.now());
+        when(timelineEntryRepository.findRecentPostsByOwnerId(eq(2L), any())).thenReturn(List.of(pushedNew, pushedOld));
+        when(postRepository.findRecentByUserIds(eq(List.of(3L)), any())).thenReturn(List.of(pulledMiddle));
+        when(timelineEntryRepository.countByOwnerIdExcludingAuthors(2L, List.of(3L))).thenReturn(2L);
+        when(postRepository.countByUserIds(List.of(3L))).thenReturn(1L);
+
+        Page<Post> page = timelineService.getTimeline(reader, pageable);
+
+        assertThat(page.getContent()).containsExactly(pushedNew, pulledMiddle);
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(meterRegistry.get("feed.read.duration").tag("path", "pull").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void getTimelineWithPullAuthorsStopsOffsetPagingAtTimelineCapacity() {
+        fanoutPolicy.setPullAuthorIds(Set.of(3L));
+        followGraph.addEdge(2L, 3L, Instant.now());
+        when(timelineEntryRepository.countByOwnerIdExcludingAuthors(2L, List.of(3L))).thenReturn(CAPACITY - 1L);
+        when(postRepository.countByUserIds(List.of(3L))).thenReturn(1_000_000L);
+
+        Page<Post> deep = timelineService.getTimeline(reader, PageRequest.of(Integer.MAX_VALUE / 10, 20));
+        timelineService.getTimeline(reader, PageRequest.of(0, CAPACITY * 2));
+
+        assertThat(deep.getContent()).isEmpty();
+        assertThat(deep.getTotalElements()).isEqualTo(CAPACITY);
+        verify(timelineEntryRepository).findRecentPostsByOwnerId(2L, PageRequest.of(0, CAPACITY));
+        verify(postRepository).findRecentByUserIds(List.of(3L), PageRequest.of(0, CAPACITY));
+    }
+
+    @Test
+    void getTimelineWithCursorSeeksBothSourcesPastCursor() {
+        Instant now = Instant.now();
+        Cursor cursor = new Cursor(now, 50L);
+        Post pushed = Post.builder().id(40L).user(author).createdAt(now.minusSeconds(30)).build();
+        Post pulled = Post.builder().id(41L).createdAt(now.minusSeconds(10)).build();
+        fanoutPolicy.setPullAuthorIds(Set.of(3L));
+        PageRequest head = PageRequest.of(0, 3);
+        followGraph.addEdge(2L, 3L, Instant.now());
+        when(timelineEntryRepository.findPostsByOwnerIdBefore(2L, now, 50L, head)).thenReturn(List.of(pushed));
+        when(postRepository.findByUserIdsBefore(List.of(3L), now, 50L, head)).thenReturn(List.of(pulled));
+
+        List<Post> posts = timelineService.getTimeline(reader, cursor, 3);
+
+        assertThat(posts).containsExactly(pulled, pushed);
+    }
+
+    @Test
+    void refreshPullAuthorsPrunesPromotedAndBackfillsDemotedAuthors() {
+        fanoutPolicy.setPullAuthorIds(Set.of(7L));
+        followGraph.addEdge(1L, 8L, Instant.now());
+        followGraph.addEdge(2L, 8L, Instant.now());
+        followGraph.addEdge(2L, 7L, Instant.now());
+
+        timelineService.refreshPullAuthors();
+
+        verify(timelineEntryRepository).deleteFollowerEntriesByAuthorId(8L);
+        verify(timelineEntryRepository).backfillFollowersOf(7L, CAPACITY);
+        assertThat(fanoutPolicy.getPullAuthorIds()).containsExactly(8L);
+    }
+
+    @Test
+    void initializeSkipsRebuildForPopulatedStore() {
+        when(timelineEntryRepository.count()).thenReturn(3L);
+
+        timelineService.initialize();
+
+        verify(timelineEntryRepository, never()).rebuildAll(anyInt());
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.fakebook.service;
+
+import com.example.fakebook.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserCountReconcilerTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    void reconcileWalksIdRangeInChunks() {
+        UserCountReconciler reconciler = new UserCountReconciler(userRepository, 100);
+        when(userRepository.findMaxId()).thenReturn(150L);
+        when(userRepository.reconcileCounts(1L, 100L)).thenReturn(3);
+        when(userRepository.reconcileCounts(101L, 200L)).thenReturn(1);
+
+        assertThat(reconciler.reconcile()).isEqualTo(4);
+        verify(userRepository, times(2)).reconcileCounts(anyLong(), anyLong());
+    }
+
+    @Test
+    void reconcileSkipsWhenThereAreNoUsers() {
+        UserCountReconciler reconciler = new UserCountReconciler(userRepository, 100);
+        when(userRepository.findMaxId()).thenReturn(null);
+
+        assertThat(reconciler.reconcile()).isZero();
+        verify(userRepository, never()).reconcileCounts(anyLong(), anyLong());
+    }
+}
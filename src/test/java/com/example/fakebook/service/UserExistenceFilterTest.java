@@ -0,0 +1,111 @@
+package com.example.fakebook.service;
+
+import com.example.fakebook.entity.User;
+import com.example.fakebook.repository.UserIdentity;
+import com.example.fakebook.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserExistenceFilterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserExistenceFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new UserExistenceFilter(userRepository, meterRegistry, 1_000, 0.01);
+    }
+
+    @Test
+    void definiteMissSkipsDatabase() {
+        loadUsers(new UserIdentity(1L, "alice", "alice@example.com"));
+
+        assertThat(filter.existsByUsername("mallory")).isFalse();
+        assertThat(filter.existsByEmail("mallory@example.com")).isFalse();
+
+        verify(userRepository, never()).existsByUsername(anyString());
+        verify(userRepository, never()).existsByEmail(anyString());
+        assertThat(meterRegistry.get("users.existence.filter.lookups")
+                .tags("filter", "username", "result", "skipped").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void possibleHitIsConfirmedByDatabase() {
+        loadUsers(new UserIdentity(1L, "alice", "alice@example.com"));
+        when(userRepository.existsByUsername("alice")).thenReturn(true);
+
+        assertThat(filter.existsByUsername("alice")).isTrue();
+        assertThat(meterRegistry.get("users.existence.filter.lookups")
+                .tags("filter", "username", "result", "confirmed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void everythingGoesToDatabaseBeforeFirstBuild() {
+        when(userRepository.existsByEmail("bob@example.com")).thenReturn(false);
+
+        assertThat(filter.existsByEmail("bob@example.com")).isFalse();
+
+        verify(userRepository).existsByEmail("bob@example.com");
+    }
+
+    @Test
+    void registrationsAreVisibleImmediately() {
+        loadUsers();
+        filter.add(User.builder().id(2L).username("bob").email("bob@example.com").build());
+        when(userRepository.existsByUsername("bob")).thenReturn(true);
+
+        assertThat(filter.existsByUsername("bob")).isTrue();
+    }
+
+    @Test
+    void registrationDuringRebuildIsReplayedIntoNewFilter() {
+        when(userRepository.count()).thenReturn(1L);
+        when(userRepository.streamAllIdentities()).thenAnswer(invocation -> {
+            filter.add(User.builder().id(2L).username("bob").email("bob@example.com").build());
+            return Stream.of(new UserIdentity(1L, "alice", "alice@example.com"));
+        });
+        filter.rebuild();
+        when(userRepository.existsByUsername("bob")).thenReturn(true);
+
+        assertThat(filter.existsByUsername("bob")).isTrue();
+    }
+
+    @Test
+    void bloomFilterStaysNearConfiguredFalsePositiveRate() {
+        BloomFilter bloomFilter = new BloomFilter(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            bloomFilter.put("user" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            assertThat(bloomFilter.mightContain("user" + i)).isTrue();
+            if (bloomFilter.mightContain("absent" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives / 100_000.0).isLessThan(0.015);
+        assertThat(bloomFilter.expectedFalsePositiveRate()).isBetween(0.005, 0.015);
+    }
+
+    private void loadUsers(UserIdentity... identities) {
+        when(userRepository.count()).thenReturn((long) identities.length);
+        when(userRepository.streamAllIdentities()).thenReturn(Stream.of(identities));
+        filter.rebuild();
+    }
+}
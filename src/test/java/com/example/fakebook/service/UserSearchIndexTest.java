@@ -0,0 +1,87 @@
+package com.example.fakebook.service;
+
+import com.example.fakebook.dto.user.UserSearchResponse;
+import com.example.fakebook.repository.UserIdentity;
+import com.example.fakebook.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserSearchIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserSearchIndex(userRepository, new SimpleMeterRegistry(), 3, 5);
+    }
+
+    @Test
+    void searchIsCaseInsensitiveAndOrderedByUsername() {
+        load(identity(1L, "Bob"), identity(2L, "alice"), identity(3L, "Albert"), identity(4L, "alfred"));
+
+        assertThat(usernames(index.search("AL", null))).containsExactly("Albert", "alfred", "alice");
+        assertThat(usernames(index.search("b", null))).containsExactly("Bob");
+        assertThat(index.search("z", null)).isEmpty();
+        assertThat(index.search(" ", null)).isEmpty();
+    }
+
+    @Test
+    void searchStopsAtRequestedSizeAndClampsToMaximum() {
+        load(identity(1L, "ann"), identity(2L, "anna"), identity(3L, "anne"), identity(4L, "annie"),
+                identity(5L, "anton"), identity(6L, "antonia"));
+
+        assertThat(index.search("an", 2)).hasSize(2);
+        assertThat(index.search("an", 50)).hasSize(5);
+    }
+
+    @Test
+    void registrationsAfterRebuildAreMergedInOrder() {
+        load(identity(1L, "carol"), identity(3L, "cecil"));
+        index.add(2L, "Casey");
+        index.add(4L, "cyd");
+
+        assertThat(usernames(index.search("c", 5))).containsExactly("carol", "Casey", "cecil", "cyd");
+    }
+
+    @Test
+    void rebuildFoldsRecentRegistrationsWithoutDuplicates() {
+        load(identity(1L, "dave"));
+        index.add(2L, "dan");
+        when(userRepository.streamAllIdentities()).thenAnswer(invocation -> {
+            index.add(3L, "dora");
+            return Stream.of(identity(1L, "dave"), identity(2L, "dan"));
+        });
+
+        index.rebuild();
+
+        assertThat(usernames(index.search("d", 5))).containsExactly("dan", "dave", "dora");
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    private void load(UserIdentity... identities) {
+        when(userRepository.streamAllIdentities()).thenReturn(Stream.of(identities));
+        index.rebuild();
+    }
+
+    private static UserIdentity identity(Long id, String username) {
+        return new UserIdentity(id, username, username + "@example.com");
+    }
+
+    private static List<String> usernames(List<UserSearchResponse> results) {
+        return results.stream().map(UserSearchResponse::getUsername).toList();
+    }
+}
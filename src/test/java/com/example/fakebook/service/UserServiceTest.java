@@ -1,17 +1,16 @@
 package com.example.fakebook.service;
 
-import com.example.fakebook.dto.user.FollowResponse;
 import com.example.fakebook.dto.user.UpdateProfileRequest;
 import com.example.fakebook.dto.user.UserResponse;
-import com.example.fakebook.entity.Follow;
 import com.example.fakebook.entity.User;
+import com.example.fakebook.exception.BadRequestException;
 import com.example.fakebook.exception.ResourceNotFoundException;
 import com.example.fakebook.mapper.UserMapper;
-import com.example.fakebook.repository.FollowRepository;
 import com.example.fakebook.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -21,9 +20,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class UserServiceTest {
@@ -31,13 +28,19 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
     @Mock
-    private FollowRepository followRepository;
-    @Mock
     private UserMapper userMapper;
+    @Mock
+    private UserSearchIndex userSearchIndex;
 
-    @InjectMocks
+    private SimpleMeterRegistry meterRegistry;
     private UserService userService;
 
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userService = new UserService(userRepository, userMapper, userSearchIndex, meterRegistry, 100, 60_000, 3);
+    }
+
     @Test
     void getUserProfileReturnsMappedResponse() {
         User user = User.builder().id(5L).username("alice").build();
@@ -81,34 +84,45 @@ class UserServiceTest {
     }
 
     @Test
-    void getFollowersTransformsToDto() {
-        User currentUser = User.builder().id(1L).username("target").build();
-        User followerUser = User.builder().id(2L).username("follower").build();
-        Follow follow = Follow.builder().follower(followerUser).following(currentUser).build();
-        FollowResponse dto = new FollowResponse();
-        when(followRepository.findAllByFollowing(currentUser)).thenReturn(List.of(follow));
-        when(userMapper.toFollowResponse(followerUser)).thenReturn(dto);
-
-        List<FollowResponse> result = userService.getFollowers(currentUser);
-
-        assertThat(result).containsExactly(dto);
-        verify(followRepository).findAllByFollowing(currentUser);
-        verify(userMapper).toFollowResponse(followerUser);
+    void getUserProfilesLoadsOnlyCacheMissesInOneQuery() {
+        User alice = User.builder().id(1L).username("alice").build();
+        User bob = User.builder().id(2L).username("bob").build();
+        UserResponse aliceResponse = new UserResponse();
+        UserResponse bobResponse = new UserResponse();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(alice));
+        when(userMapper.toUserResponse(alice)).thenReturn(aliceResponse);
+        when(userRepository.findAllById(List.of(2L, 9L))).thenReturn(List.of(bob));
+        when(userMapper.toUserResponse(bob)).thenReturn(bobResponse);
+        userService.getUserProfile(1L);
+
+        List<UserResponse> profiles = userService.getUserProfiles(List.of(2L, 1L, 9L, 2L));
+
+        assertThat(profiles).containsExactly(bobResponse, aliceResponse);
+        verify(userRepository, times(1)).findAllById(any());
+        assertThat(meterRegistry.get("users.profile.queries.saved").counter().count()).isEqualTo(2);
     }
 
     @Test
-    void getFollowingTransformsToDto() {
-        User currentUser = User.builder().id(1L).username("target").build();
-        User followingUser = User.builder().id(3L).username("following").build();
-        Follow follow = Follow.builder().follower(currentUser).following(followingUser).build();
-        FollowResponse dto = new FollowResponse();
-        when(followRepository.findAllByFollower(currentUser)).thenReturn(List.of(follow));
-        when(userMapper.toFollowResponse(followingUser)).thenReturn(dto);
-
-        List<FollowResponse> result = userService.getFollowing(currentUser);
-
-        assertThat(result).containsExactly(dto);
-        verify(followRepository).findAllByFollower(currentUser);
-        verify(userMapper).toFollowResponse(followingUser);
+    void getUserProfilesRejectsTooManyIds() {
+        assertThatThrownBy(() -> userService.getUserProfiles(List.of(1L, 2L, 3L, 4L)))
+                .isInstanceOf(BadRequestException.class);
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void updateProfileEvictsCachedProfile() {
+        User user = User.builder().id(3L).username("bob").build();
+        UserResponse stale = new UserResponse();
+        UserResponse fresh = new UserResponse();
+        when(userRepository.findById(3L)).thenReturn(Optional.of(user));
+        when(userMapper.toUserResponse(user)).thenReturn(stale, fresh);
+        when(userRepository.save(user)).thenReturn(user);
+        userService.getUserProfile(3L);
+
+        userService.updateProfile(user, new UpdateProfileRequest());
+
+        assertThat(userService.getUserProfile(3L)).isSameAs(fresh);
+        verify(userRepository, times(2)).findById(3L);
     }
 }